@@ -0,0 +1,202 @@
+package andreclinio.javawidgets.jdegradee.benchmarks;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import andreclinio.javawidgets.jdegradee.JDegradee;
+
+/**
+ * Benchmarks of the {@link JDegradee} hot paths, for several numbers of itens
+ * and mark densities.
+ *
+ * @author André Clinio
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class JDegradeeBenchmark {
+
+  /**
+   * Widget width (pixels)
+   */
+  final static private int WIDTH = 800;
+
+  /**
+   * Widget height (pixels)
+   */
+  final static private int HEIGHT = 60;
+
+  /**
+   * Prime step used to walk through the itens (defeats trivial prediction)
+   */
+  final static private int STEP = 7919;
+
+  /**
+   * Number of itens (the doubled value must fit {@link JDegradee#MAX_ITENS})
+   */
+  @Param({ "16", "512", "32768" })
+  private int numItems;
+
+  /**
+   * Marks per item
+   */
+  @Param({ "0", "0.01", "0.1" })
+  private double markDensity;
+
+  /**
+   * Widget
+   */
+  private JDegradee jDegradee;
+
+  /**
+   * Paint target
+   */
+  private BufferedImage image;
+
+  /**
+   * Paint target graphics
+   */
+  private Graphics2D graphics;
+
+  /**
+   * Ratios for the bulk color query
+   */
+  private double[] ratios;
+
+  /**
+   * Colors of the bulk color query
+   */
+  private int[] colors;
+
+  /**
+   * Current item (or pixel)
+   */
+  private int cursor;
+
+  /**
+   * Widget building
+   */
+  @Setup
+  public void setup() {
+    jDegradee = new JDegradee();
+    jDegradee.setSize(WIDTH, HEIGHT);
+    jDegradee.setNumItens(numItems);
+    jDegradee.setGridActive(true);
+    jDegradee.setBufferActive(false);
+    final Random random = new Random(numItems);
+    final int numMarks = (int) (numItems * markDensity);
+    for (int i = 0; i < numMarks; i++) {
+      jDegradee.setMarkColorIndex(random.nextInt(numItems), new Color(random.nextInt(0x1000000)));
+    }
+    ratios = new double[numItems];
+    for (int i = 0; i < numItems; i++) {
+      ratios[i] = random.nextDouble();
+    }
+    colors = new int[numItems];
+    image = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_ARGB);
+    graphics = image.createGraphics();
+  }
+
+  /**
+   * Resource release
+   */
+  @TearDown
+  public void tearDown() {
+    graphics.dispose();
+  }
+
+  /**
+   * Next item to be queried
+   *
+   * @param bound upper limit (exclusive)
+   * @return index
+   */
+  private int next(final int bound) {
+    cursor = (cursor + STEP) % bound;
+    return cursor;
+  }
+
+  /**
+   * Color query by index
+   *
+   * @return color
+   */
+  @Benchmark
+  public Color calculateColorIndex() {
+    return jDegradee.calculateColorIndex(next(numItems));
+  }
+
+  /**
+   * Color query by ratio
+   *
+   * @return color
+   */
+  @Benchmark
+  public Color calculateColorRatio() {
+    return jDegradee.calculateColorRatio((double) next(numItems) / numItems);
+  }
+
+  /**
+   * Bulk color query by ratio (one ratio per item)
+   *
+   * @return colors
+   */
+  @Benchmark
+  public int[] calculateColorsRatio() {
+    jDegradee.calculateColorsRatio(ratios, colors);
+    return colors;
+  }
+
+  /**
+   * Number of itens change (marks reallocation) followed by a color query,
+   * which rebuilds the palette. Doubling and halving keeps every mark.
+   *
+   * @return color
+   */
+  @Benchmark
+  public int setNumItens() {
+    final int current = jDegradee.getNumItems();
+    jDegradee.setNumItens(current == numItems ? numItems * 2 : numItems);
+    return jDegradee.getColorRGB(0);
+  }
+
+  /**
+   * Hit testing
+   *
+   * @return index
+   */
+  @Benchmark
+  public int indexAt() {
+    return jDegradee.indexAt(next(WIDTH), HEIGHT / 2);
+  }
+
+  /**
+   * Full (unbuffered) painting into an image
+   *
+   * @return image
+   */
+  @Benchmark
+  public BufferedImage paintComponent() {
+    jDegradee.paintComponent(graphics);
+    return image;
+  }
+}
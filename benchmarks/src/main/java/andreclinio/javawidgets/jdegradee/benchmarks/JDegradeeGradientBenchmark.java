@@ -0,0 +1,85 @@
+package andreclinio.javawidgets.jdegradee.benchmarks;
+
+import java.awt.Color;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import andreclinio.javawidgets.jdegradee.JDegradeeGradient;
+
+/**
+ * Benchmark of the full palette building of {@link JDegradeeGradient}, with
+ * the scalar kernel and (on Java 17 or later, with the incubator module) the
+ * vectorized one.
+ *
+ * @author André Clinio
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class JDegradeeGradientBenchmark {
+
+  /**
+   * Number of itens
+   */
+  @Param({ "512", "8192", "65536" })
+  private int numItems;
+
+  /**
+   * Number of marks
+   */
+  @Param({ "0", "8" })
+  private int numMarks;
+
+  /**
+   * Gradient
+   */
+  private JDegradeeGradient gradient;
+
+  /**
+   * Gradient building
+   */
+  @Setup
+  public void setup() {
+    final Random random = new Random(numItems);
+    gradient = new JDegradeeGradient(numItems, new Color(0x80ff0000, true), Color.blue);
+    for (int i = 0; i < numMarks; i++) {
+      gradient = gradient.withMarkColorIndex(random.nextInt(numItems), new Color(random.nextInt(), true));
+    }
+  }
+
+  /**
+   * Full palette building (scalar kernel)
+   *
+   * @return gradient
+   */
+  @Benchmark
+  @Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+  public JDegradeeGradient buildScalar() {
+    return gradient.withNumItems(numItems);
+  }
+
+  /**
+   * Full palette building (vectorized kernel, when available)
+   *
+   * @return gradient
+   */
+  @Benchmark
+  @Fork(value = 1, jvmArgsAppend = { "-Djava.awt.headless=true", "--add-modules", "jdk.incubator.vector" })
+  public JDegradeeGradient buildVector() {
+    return gradient.withNumItems(numItems);
+  }
+}
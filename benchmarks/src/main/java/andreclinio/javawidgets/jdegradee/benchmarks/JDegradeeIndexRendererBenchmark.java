@@ -0,0 +1,116 @@
+package andreclinio.javawidgets.jdegradee.benchmarks;
+
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.Graphics2D;
+import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import andreclinio.javawidgets.jdegradee.JDegradee;
+import andreclinio.javawidgets.jdegradee.renderers.JDegradeeIndexRenderer;
+
+/**
+ * Benchmark of {@link JDegradeeIndexRenderer#render}: one operation renders
+ * the labels of all itens (a full frame).
+ *
+ * @author André Clinio
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class JDegradeeIndexRendererBenchmark {
+
+  /**
+   * Widget width (pixels)
+   */
+  final static private int WIDTH = 2048;
+
+  /**
+   * Widget height (pixels)
+   */
+  final static private int HEIGHT = 60;
+
+  /**
+   * Number of itens
+   */
+  @Param({ "16", "128", "512" })
+  private int numItems;
+
+  /**
+   * Widget (only queried by the renderer)
+   */
+  private JDegradee jDegradee;
+
+  /**
+   * Renderer
+   */
+  private JDegradeeIndexRenderer renderer;
+
+  /**
+   * Paint target
+   */
+  private BufferedImage image;
+
+  /**
+   * Paint target graphics
+   */
+  private Graphics2D graphics;
+
+  /**
+   * Item area
+   */
+  final private Rectangle2D rect = new Rectangle2D.Double();
+
+  /**
+   * Renderer building
+   */
+  @Setup
+  public void setup() {
+    jDegradee = new JDegradee();
+    jDegradee.setSize(WIDTH, HEIGHT);
+    jDegradee.setNumItens(numItems);
+    renderer = new JDegradeeIndexRenderer(new Font("monospaced", Font.PLAIN, 12), Color.black);
+    image = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_ARGB);
+    graphics = image.createGraphics();
+  }
+
+  /**
+   * Resource release
+   */
+  @TearDown
+  public void tearDown() {
+    graphics.dispose();
+  }
+
+  /**
+   * Rendering of all item labels
+   *
+   * @return image
+   */
+  @Benchmark
+  public BufferedImage render() {
+    final double w = (double) WIDTH / numItems;
+    for (int i = 0; i < numItems; i++) {
+      rect.setFrame(w * i, 0.0, w, HEIGHT);
+      renderer.render(jDegradee, graphics, rect, i);
+    }
+    return image;
+  }
+}
@@ -1,21 +1,37 @@
 package andreclinio.javawidgets.jdegradee;
 
+import java.awt.AlphaComposite;
 import java.awt.Color;
+import java.awt.Font;
 import java.awt.Graphics;
 import java.awt.Graphics2D;
+import java.awt.Rectangle;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
 import java.awt.event.MouseMotionListener;
+import java.awt.geom.AffineTransform;
 import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
 import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 import javax.swing.JPanel;
 
 import andreclinio.javawidgets.jdegradee.adapters.JDegradeeAdapter;
+import andreclinio.javawidgets.jdegradee.adapters.JDegradeeGradientEvent;
+import andreclinio.javawidgets.jdegradee.adapters.JDegradeeGradientListener;
 import andreclinio.javawidgets.jdegradee.renderers.JDegradeeRenderer;
 
 /**
  * Degrade widget
+ * <p>
+ * The widget must be used on the event dispatch thread, as any Swing
+ * component. Its gradient (itens, colors and marks) is an immutable
+ * {@link JDegradeeGradient}, replaced on every change: any thread may take
+ * a consistent snapshot through {@link #getGradient()} and query colors with
+ * no locking.
  *
  * @author Andr Clinio
  */
@@ -49,29 +65,75 @@ public class JDegradee extends JPanel {
   private Color lineColor = Color.black;
 
   /**
-   * Primary color
+   * Gradient (itens, colors and marks; replaced on every change, read by
+   * any thread)
    */
-  private Color priColor = Color.red;
+  private volatile JDegradeeGradient gradient = new JDegradeeGradient(MIN_ITENS, Color.red, Color.blue);
 
   /**
-   * Secondary color
+   * Batch update nesting level
    */
-  private Color secColor = Color.blue;
+  private int updateLevel;
 
   /**
-   * Markers' colors
+   * Gradient before the current batch update (or {@code null})
    */
-  private Color[] markColor;
+  private JDegradeeGradient updateBase;
 
   /**
-   * number of itens (discret inside panel)
+   * Grid drawing flag
    */
-  private int numItems;
+  private boolean hasGrid = true;
 
   /**
-   * Grid drawing flag
+   * Continuous drawing flag (at most one span per pixel, no grid or renderers)
    */
-  private boolean hasGrid = true;
+  private boolean continuous = false;
+
+  /**
+   * Drawing cache (back buffer) flag
+   */
+  private boolean bufferActive = true;
+
+  /**
+   * Drawing cache (back buffer) image
+   */
+  private BufferedImage buffer;
+
+  /**
+   * Drawing version stored in the back buffer (or -1)
+   */
+  private long bufferVersion = -1;
+
+  /**
+   * Drawing version (incremented on any change that affects drawing)
+   */
+  private long version;
+
+  /**
+   * First item to be redrawn in the back buffer (or -1)
+   */
+  private int dirtyFirst = -1;
+
+  /**
+   * Last item to be redrawn in the back buffer (or -1)
+   */
+  private int dirtyLast = -1;
+
+  /**
+   * Drawing and hit testing (prepared before each use)
+   */
+  final private JDegradeePainter painter = new JDegradeePainter();
+
+  /**
+   * Scratch region (repaint reuse, avoiding allocations)
+   */
+  final private Rectangle region = new Rectangle();
+
+  /**
+   * Scratch clip bounds (direct drawing reuse, avoiding allocations)
+   */
+  final private Rectangle clipBounds = new Rectangle();
 
   /**
    * Mark size (representation)
@@ -86,25 +148,50 @@ public class JDegradee extends JPanel {
   /**
    * Maximum number of itens
    */
-  final static public int MAX_ITENS = 512;
+  final static public int MAX_ITENS = 65536;
 
   /**
    * Mouse adapaters list
    */
   final private ArrayList<JDegradeeAdapter> adapters = new ArrayList<>();
 
+  /**
+   * Mouse move callback use flag (some adapter overrides it)
+   */
+  private boolean moveListened = false;
+
+  /**
+   * Mouse drag callback use flag (some adapter overrides it)
+   */
+  private boolean dragListened = false;
+
+  /**
+   * Hovered item change callback use flag (some adapter overrides it)
+   */
+  private boolean hoverListened = false;
+
+  /**
+   * Hovered index (or <code>-1</code>)
+   */
+  private int hoverIndex = -1;
+
   /**
    * Texto a ser desenhado
    */
   final private ArrayList<JDegradeeRenderer> textBuilders = new ArrayList<>();
 
+  /**
+   * Gradient change listeners list
+   */
+  final private ArrayList<JDegradeeGradientListener> gradientListeners = new ArrayList<>();
+
   /**
    * Number of itens
    *
    * @return number of itens
    */
   final public int getNumItems() {
-    return numItems;
+    return gradient.getNumItems();
   }
 
   /**
@@ -113,44 +200,195 @@ public class JDegradee extends JPanel {
    * @param numItens number of itens
    */
   final public void setNumItens(final int numItens) {
-    if (numItens < MIN_ITENS || numItens > MAX_ITENS) {
-      final String err = "Value out of range (" + MIN_ITENS + "," + MAX_ITENS + ")";
-      throw new RuntimeException(err);
+    changeGradient(gradient.withNumItems(numItens), 0, numItens - 1);
+  }
+
+  /**
+   * Current gradient query (immutable snapshot of itens, colors and marks,
+   * that may be used by any thread or for headless drawing).
+   *
+   * @return gradient
+   * @see JDegradeeExporter
+   */
+  final public JDegradeeGradient getGradient() {
+    return gradient;
+  }
+
+  /**
+   * Gradient adjustment (itens, colors and marks at once)
+   *
+   * @param gradient gradient
+   */
+  final public void setGradient(final JDegradeeGradient gradient) {
+    if (gradient == null) {
+      throw new RuntimeException("Null gradient");
     }
-    this.numItems = numItens;
-    reallocMarks();
-    repaint();
+    final JDegradeeGradient old = this.gradient;
+    changeGradient(gradient, gradient.getFirstChange(old), gradient.getLastChange(old));
   }
 
   /**
-   * Search of next index that has a mark
+   * Animated gradient adjustment: a transition from the current gradient
+   * (blending both palettes) driven by the shared animation scheduler. Any
+   * other gradient change stops the transition. Gradients with another
+   * number of itens are set with no transition.
    *
-   * @param index search index
-   * @return index (or -1 if does not exist)
+   * @param target final gradient
+   * @param millis duration (milliseconds)
+   * @see JDegradeeAnimator
    */
-  private int getNextMarkIndex(final int index) {
-    final int last = markColor.length;
-    for (int i = index; i < last; i++) {
-      if (markColor[i] != null) {
-        return i;
-      }
+  final public void animateGradient(final JDegradeeGradient target, final int millis) {
+    if (target == null) {
+      throw new RuntimeException("Null gradient");
+    }
+    final JDegradeeGradient current = gradient;
+    if (millis <= 0 || target.getNumItems() != current.getNumItems()) {
+      setGradient(target);
+      return;
     }
-    return -1;
+    JDegradeeAnimator.start(new JDegradeeAnimator.Transition(this, current, target, millis));
   }
 
   /**
-   * Search of previous index that has a mark
+   * Transition stop: the current (intermediate) gradient is kept.
+   */
+  final public void stopAnimation() {
+    JDegradeeAnimator.stop(this);
+  }
+
+  /**
+   * Checks if a transition is running
    *
-   * @param index search index
-   * @return index (or -1, if does not exist)
+   * @return indicative
    */
-  private int getPrevMarkIndex(final int index) {
-    for (int i = index; i >= 0; i--) {
-      if (markColor[i] != null) {
-        return i;
-      }
+  final public boolean isAnimating() {
+    return JDegradeeAnimator.isRunning(this);
+  }
+
+  /**
+   * Transition frame (called by the animation scheduler)
+   *
+   * @param frame intermediate (or final) gradient
+   */
+  void applyTransitionFrame(final JDegradeeGradient frame) {
+    final JDegradeeGradient old = gradient;
+    gradient = frame;
+    if (updateLevel == 0) {
+      gradientChanged(old, frame.getFirstChange(old), frame.getLastChange(old));
+    }
+  }
+
+  /**
+   * Batch update: all changes made by the given code (through the editor)
+   * are applied at once, with a single palette building, change event and
+   * repaint.
+   *
+   * @param changes changes
+   */
+  final public void update(final Consumer<JDegradeeGradient.Editor> changes) {
+    final JDegradeeGradient.Editor editor = gradient.edit();
+    changes.accept(editor);
+    setGradient(editor.build());
+  }
+
+  /**
+   * Batch update start: until the matching {@link #endUpdate()}, gradient
+   * changes made through the widget methods fire no change events and
+   * request no repaints. Calls may be nested.
+   */
+  final public void beginUpdate() {
+    if (updateLevel == 0) {
+      updateBase = gradient;
     }
-    return -1;
+    updateLevel++;
+  }
+
+  /**
+   * Batch update end: when the outermost batch ends, a single change event
+   * (covering all changed itens) is fired and a single repaint is requested.
+   */
+  final public void endUpdate() {
+    if (updateLevel == 0) {
+      throw new RuntimeException("No update in progress");
+    }
+    updateLevel--;
+    if (updateLevel > 0) {
+      return;
+    }
+    final JDegradeeGradient old = updateBase;
+    updateBase = null;
+    if (old != gradient) {
+      gradientChanged(old, gradient.getFirstChange(old), gradient.getLastChange(old));
+    }
+  }
+
+  /**
+   * Internal gradient replacement (notification postponed during batch
+   * updates); an equal gradient is ignored, so it does not stop a transition.
+   *
+   * @param next new gradient
+   * @param first first changed index
+   * @param last last changed index
+   */
+  private void changeGradient(final JDegradeeGradient next, final int first, final int last) {
+    if (next.equals(gradient)) {
+      return;
+    }
+    JDegradeeAnimator.stop(this);
+    final JDegradeeGradient old = gradient;
+    gradient = next;
+    if (updateLevel == 0) {
+      gradientChanged(old, first, last);
+    }
+  }
+
+  /**
+   * Gradient change notification: drawing invalidation (partial when the
+   * number of itens is kept), repaint and change event. The event is fired
+   * for any gradient change, even with no changed item (empty interval, as
+   * for a primary color hidden by a mark at the first item).
+   *
+   * @param old previous gradient
+   * @param first first changed index
+   * @param last last changed index
+   */
+  private void gradientChanged(final JDegradeeGradient old, final int first, final int last) {
+    if (old.getNumItems() != gradient.getNumItems()) {
+      invalidateDrawing();
+      repaint();
+    }
+    else if (first <= last) {
+      invalidateDrawing(first, last);
+    }
+    else if (old.equals(gradient)) {
+      return;
+    }
+    final int numListeners = gradientListeners.size();
+    if (numListeners == 0) {
+      return;
+    }
+    final JDegradeeGradientEvent event = new JDegradeeGradientEvent(this, old, gradient, first, last);
+    for (int i = 0; i < numListeners; i++) {
+      gradientListeners.get(i).gradientChanged(event);
+    }
+  }
+
+  /**
+   * Gradient change listener addition
+   *
+   * @param listener listener
+   */
+  final public void addGradientListener(final JDegradeeGradientListener listener) {
+    gradientListeners.add(listener);
+  }
+
+  /**
+   * Gradient change listener removal
+   *
+   * @param listener listener
+   */
+  final public void delGradientListener(final JDegradeeGradientListener listener) {
+    gradientListeners.remove(listener);
   }
 
   /**
@@ -161,7 +399,7 @@ public class JDegradee extends JPanel {
    * @see #calculateColorIndex(int)
    */
   final public Color calculateColorRatio(final double ratio) {
-    final int index = (int) Math.round(numItems * ratio);
+    final int index = (int) Math.round(gradient.getNumItems() * ratio);
     return calculateColorIndex(index);
   }
 
@@ -171,83 +409,119 @@ public class JDegradee extends JPanel {
    *
    * @param index index
    * @return color
+   * @see #getColorRGB(int)
    */
   final public Color calculateColorIndex(final int index) {
-    if (markColor[index] != null) {
-      return markColor[index];
+    final Color markColor = gradient.getMarkColor(index);
+    if (markColor != null) {
+      return markColor;
     }
-    final int prevIdx = getPrevMarkIndex(index);
-    final int nextIdx = getNextMarkIndex(index);
-    final Color prevColor;
-    final Color nextColor;
-    final double factor;
-
-    if (prevIdx < 0 && nextIdx < 0) {
-      prevColor = priColor;
-      nextColor = secColor;
-      factor = ((double) index) / (numItems - 1);
-    }
-    else if (prevIdx >= 0 && nextIdx >= 0) {
-      final double delta = nextIdx - prevIdx;
-      final double diff = index - prevIdx;
-      factor = diff / delta;
-      prevColor = markColor[prevIdx];
-      nextColor = markColor[nextIdx];
-    }
-    else if (prevIdx >= 0 && nextIdx < 0) {
-      prevColor = markColor[prevIdx];
-      nextColor = secColor;
-      final double delta = (numItems - 1) - prevIdx;
-      final double diff = index - prevIdx;
-      factor = diff / delta;
-    }
-    else { // (prevIdx < 0 && nextIdx >= 0)
-      prevColor = priColor;
-      nextColor = markColor[nextIdx];
-      final double delta = nextIdx;
-      final double diff = index;
-      factor = diff / delta;
-    }
-    return getGradientColor(prevColor, nextColor, factor);
+    preparePainter();
+    return painter.getItemColor(index);
   }
 
   /**
-   * Calculates the rectangular area of an item
+   * Queries the packed ARGB color of an item (no object allocation).
    *
    * @param index index
-   * @return rectangle
+   * @return packed ARGB color
+   * @see #calculateColorIndex(int)
    */
-  private Rectangle2D getBounds(final int index) {
-    final Rectangle2D rect = new Rectangle2D.Double();
-    final double width = getWidth();
-    final double height = getHeight();
-    switch (orientation) {
-      case HORIZONTAL:
-        final double w = width / numItems;
-        rect.setFrame(w * index, 0.0, w, height);
+  final public int getColorRGB(final int index) {
+    return gradient.getColorRGB(index);
+  }
 
-        break;
-      case VERTICAL:
-        final double h = height / numItems;
-        rect.setFrame(0.0, h * index, width, h);
+  /**
+   * Bulk query of the packed ARGB colors of all itens (no object allocation).
+   *
+   * @param dest array to be filled (from <code>offset</code> on, with
+   *        {@link #getNumItems()} colors)
+   * @param offset first position in <code>dest</code>
+   * @see JDegradeeGradient#getColorsRGB(int[], int)
+   */
+  final public void getColorsRGB(final int[] dest, final int offset) {
+    gradient.getColorsRGB(dest, offset);
+  }
 
-        break;
-    }
-    return rect;
+  /**
+   * Bulk query of colors based on percentages (no object allocation).
+   *
+   * @param ratios percentages
+   * @param ratiosOffset first position in <code>ratios</code>
+   * @param dest array to be filled
+   * @param destOffset first position in <code>dest</code>
+   * @param length number of colors
+   * @see JDegradeeGradient#calculateColorsRatio(double[], int, int[], int, int)
+   */
+  final public void calculateColorsRatio(final double[] ratios, final int ratiosOffset, final int[] dest,
+    final int destOffset, final int length) {
+    gradient.calculateColorsRatio(ratios, ratiosOffset, dest, destOffset, length);
   }
 
   /**
-   * Internal drawing method (loop)
+   * Bulk query of colors based on percentages (all ratios)
    *
-   * @param g graphical Java context
+   * @param ratios percentages
+   * @param dest array to be filled (at least as long as <code>ratios</code>)
+   * @see JDegradeeGradient#calculateColorsRatio(double[], int[])
    */
-  private void drawItems(final Graphics2D g) {
-    for (int i = 0; i < numItems; i++) {
-      drawItem(g, i);
+  final public void calculateColorsRatio(final double[] ratios, final int[] dest) {
+    gradient.calculateColorsRatio(ratios, dest);
+  }
+
+  /**
+   * Drawing invalidation: the back buffer will be redrawn in the next paint.
+   * Applications must call this method when an item renderer changes its
+   * output.
+   */
+  final public void invalidateDrawing() {
+    version++;
+    dirtyFirst = -1;
+    dirtyLast = -1;
+  }
+
+  /**
+   * Partial drawing invalidation: only the given itens (and the marks over
+   * them) will be redrawn in the back buffer and repainted on screen.
+   *
+   * @param first first index
+   * @param last last index
+   */
+  private void invalidateDrawing(final int first, final int last) {
+    if (first > last) {
+      return;
     }
-    for (int i = 0; i < numItems; i++) {
-      drawMark(g, i);
+    if (dirtyFirst < 0) {
+      dirtyFirst = first;
+      dirtyLast = last;
     }
+    else {
+      dirtyFirst = Math.min(dirtyFirst, first);
+      dirtyLast = Math.max(dirtyLast, last);
+    }
+    repaint(getItemsRegion(first, last));
+  }
+
+  /**
+   * Region (in pixels) covered by an item interval, including the marks that
+   * may be drawn over them.
+   *
+   * @param first first index
+   * @param last last index
+   * @return region (scratch object, valid until the next call)
+   */
+  private Rectangle getItemsRegion(final int first, final int last) {
+    preparePainter();
+    return painter.getItemsRegion(first, last, region);
+  }
+
+  /**
+   * Painter setup with the current widget state (size, gradient and drawing
+   * options).
+   */
+  private void preparePainter() {
+    painter.setup(this, gradient, orientation, getWidth(), getHeight());
+    painter.setStyle(hasGrid, lineColor, continuous, textBuilders);
   }
 
   /**
@@ -257,6 +531,7 @@ public class JDegradee extends JPanel {
    */
   final public void addItemRenderer(final JDegradeeRenderer renderer) {
     textBuilders.add(renderer);
+    invalidateDrawing();
   }
 
   /**
@@ -266,35 +541,24 @@ public class JDegradee extends JPanel {
    */
   final public void delItemRenderer(final JDegradeeRenderer renderer) {
     textBuilders.remove(renderer);
+    invalidateDrawing();
   }
 
   /**
-   * Item renederers full removal.
+   * Item renderers query (internal list, for copying)
+   *
+   * @return renderers
    */
-  final public void clearRenderer() {
-    textBuilders.clear();
+  final List<JDegradeeRenderer> getItemRenderers() {
+    return textBuilders;
   }
 
   /**
-   * Internal item draw mthod
-   *
-   * @param g2d Java graphical context
-   * @param index index
+   * Item renederers full removal.
    */
-  private void drawItem(final Graphics2D g2d, final int index) {
-    final Rectangle2D rect = getBounds(index);
-    final Color color = calculateColorIndex(index);
-
-    g2d.setColor(color);
-    g2d.fill(rect);
-    if (hasGrid) {
-      g2d.setColor(lineColor);
-      g2d.draw(rect);
-    }
-
-    for (JDegradeeRenderer textBuilder : textBuilders) {
-      textBuilder.render(this, g2d, rect, index);
-    }
+  final public void clearRenderer() {
+    textBuilders.clear();
+    invalidateDrawing();
   }
 
   /**
@@ -308,57 +572,37 @@ public class JDegradee extends JPanel {
     if (color == null) {
       return null;
     }
-    final Rectangle2D bndRect = getBounds(index);
-    final double cx = bndRect.getCenterX();
-    final double cy = bndRect.getCenterY();
-    final double sz2 = MARK_SIZE / 2.0;
-    final Rectangle2D mrkRect = new Rectangle2D.Double(cx - sz2, cy - sz2, MARK_SIZE, MARK_SIZE);
-    return mrkRect;
-  }
-
-  /**
-   * MArk internal drawing method
-   *
-   * @param g2d Java graphical context
-   * @param index mark index
-   */
-  private void drawMark(final Graphics2D g2d, final int index) {
-    final Rectangle2D rect = getMarkBounds(index);
-    if (rect == null) {
-      return;
-    }
-
-    final Color color = getMarkColor(index);
-    g2d.setColor(color);
-    g2d.fill(rect);
-    g2d.setColor(lineColor);
-    g2d.draw(rect);
+    preparePainter();
+    return painter.getMarkBounds(index, new Rectangle2D.Double());
   }
 
   /**
-   * Full draweing method
+   * Search for index belonging to a coordinate (plain arithmetic, based on
+   * the orientation and the component size).
    *
-   * @param g2d Java graphical context
+   * @param x  X value
+   * @param y  Y value
+   * @return index (or -1 if it does not exist)
    */
-  private void drawPanel(final Graphics2D g2d) {
-    drawItems(g2d);
+  final public int indexAt(final double x, final double y) {
+    JDegradeeMetrics.hitTest();
+    preparePainter();
+    return painter.indexAt(x, y);
   }
 
   /**
-   * Search for index belonging to a coordinate
+   * Search for the mark drawn over a coordinate. Only the marks of the itens
+   * near the coordinate are checked (binary search), with no allocation.
    *
-   * @param x  X value
-   * @param y  Y value
-   * @return index (or -1 if it does not exist)
+   * @param x X value
+   * @param y Y value
+   * @return mark index (or -1 if there is no mark)
+   * @see #getMarkBounds(int)
    */
-  private int getIndex(final double x, final double y) {
-    for (int index = 0; index < numItems; index++) {
-      final Rectangle2D rect = getBounds(index);
-      if (rect.contains(x, y)) {
-        return index;
-      }
-    }
-    return -1;
+  final public int markAt(final double x, final double y) {
+    JDegradeeMetrics.hitTest();
+    preparePainter();
+    return painter.markAt(x, y);
   }
 
   /**
@@ -368,7 +612,7 @@ public class JDegradee extends JPanel {
    * @return flag
    */
   private boolean isValidIndex(final int index) {
-    return index >= 0 && index < numItems;
+    return index >= 0 && index < gradient.getNumItems();
   }
 
   /**
@@ -382,13 +626,15 @@ public class JDegradee extends JPanel {
       public void mouseClicked(final MouseEvent event) {
         final int x = event.getX();
         final int y = event.getY();
-        final int index = getIndex(x, y);
+        final int index = indexAt(x, y);
         if (!isValidIndex(index)) {
           return;
         }
         final Color color = calculateColorIndex(index);
         for (JDegradeeAdapter adapter : adapters) {
+          final long start = JDegradeeMetrics.start();
           adapter.mouseClicked(self, index, color, event);
+          JDegradeeMetrics.dispatched(adapter, start);
         }
       }
 
@@ -396,13 +642,15 @@ public class JDegradee extends JPanel {
       public void mousePressed(final MouseEvent event) {
         final int x = event.getX();
         final int y = event.getY();
-        final int index = getIndex(x, y);
+        final int index = indexAt(x, y);
         if (!isValidIndex(index)) {
           return;
         }
         final Color color = calculateColorIndex(index);
         for (JDegradeeAdapter adapter : adapters) {
+          final long start = JDegradeeMetrics.start();
           adapter.mousePressed(self, index, color, event);
+          JDegradeeMetrics.dispatched(adapter, start);
         }
       }
 
@@ -410,27 +658,36 @@ public class JDegradee extends JPanel {
       public void mouseReleased(final MouseEvent event) {
         final int x = event.getX();
         final int y = event.getY();
-        final int index = getIndex(x, y);
+        final int index = indexAt(x, y);
         if (!isValidIndex(index)) {
           return;
         }
         final Color color = calculateColorIndex(index);
         for (JDegradeeAdapter adapter : adapters) {
+          final long start = JDegradeeMetrics.start();
           adapter.mouseReleased(self, index, color, event);
+          JDegradeeMetrics.dispatched(adapter, start);
         }
       }
 
       @Override
       public void mouseEntered(final MouseEvent event) {
         for (JDegradeeAdapter adapter : adapters) {
+          final long start = JDegradeeMetrics.start();
           adapter.mouseEntered(self, event);
+          JDegradeeMetrics.dispatched(adapter, start);
         }
       }
 
       @Override
       public void mouseExited(final MouseEvent event) {
+        if (hoverListened) {
+          changeHoverIndex(-1, event);
+        }
         for (JDegradeeAdapter adapter : adapters) {
+          final long start = JDegradeeMetrics.start();
           adapter.mouseExited(self, event);
+          JDegradeeMetrics.dispatched(adapter, start);
         }
       }
     });
@@ -443,7 +700,9 @@ public class JDegradee extends JPanel {
     final JDegradee self = this;
     addMouseWheelListener(event -> {
       for (JDegradeeAdapter adapter : adapters) {
+        final long start = JDegradeeMetrics.start();
         adapter.mouseWheelMoved(self, event);
+        JDegradeeMetrics.dispatched(adapter, start);
       }
     });
   }
@@ -456,94 +715,239 @@ public class JDegradee extends JPanel {
     addMouseMotionListener(new MouseMotionListener() {
       @Override
       public void mouseDragged(final MouseEvent event) {
-        final int x = event.getX();
-        final int y = event.getY();
-        final int index = getIndex(x, y);
-        if (!isValidIndex(index)) {
+        if (!dragListened && !hoverListened) {
+          return;
+        }
+        final int index = indexAt(event.getX(), event.getY());
+        if (hoverListened) {
+          changeHoverIndex(isValidIndex(index) ? index : -1, event);
+        }
+        if (!dragListened || !isValidIndex(index)) {
           return;
         }
         final Color color = calculateColorIndex(index);
         for (JDegradeeAdapter adapter : adapters) {
+          final long start = JDegradeeMetrics.start();
           adapter.mouseDragged(self, index, color, event);
+          JDegradeeMetrics.dispatched(adapter, start);
         }
-
       }
 
       @Override
       public void mouseMoved(final MouseEvent event) {
-        final int x = event.getX();
-        final int y = event.getY();
-        final int index = getIndex(x, y);
-        if (!isValidIndex(index)) {
+        if (!moveListened && !hoverListened) {
+          return;
+        }
+        final int index = indexAt(event.getX(), event.getY());
+        if (hoverListened) {
+          changeHoverIndex(isValidIndex(index) ? index : -1, event);
+        }
+        if (!moveListened || !isValidIndex(index)) {
           return;
         }
         final Color color = calculateColorIndex(index);
         for (JDegradeeAdapter adapter : adapters) {
+          final long start = JDegradeeMetrics.start();
           adapter.mouseMoved(self, index, color, event);
+          JDegradeeMetrics.dispatched(adapter, start);
         }
       }
     });
   }
 
   /**
-   * Internal mark colors reallocation
+   * Hovered index adjustment: adapters are called only if it changes.
+   *
+   * @param index new hovered index (or <code>-1</code>)
+   * @param event original Java event
    */
-  private void reallocMarks() {
-    final Color[] array = new Color[numItems];
-    if (markColor == null) {
-      markColor = array;
+  private void changeHoverIndex(final int index, final MouseEvent event) {
+    final int oldIndex = hoverIndex;
+    if (index == oldIndex) {
       return;
     }
+    hoverIndex = index;
+    final ColorHandle color = new ColorHandle(gradient, index);
+    for (JDegradeeAdapter adapter : adapters) {
+      final long start = JDegradeeMetrics.start();
+      adapter.hoverIndexChanged(this, oldIndex, index, color, event);
+      JDegradeeMetrics.dispatched(adapter, start);
+    }
+  }
+
+  /**
+   * Lazy color of an item (of the gradient at the event time), calculated
+   * once, at the first query.
+   */
+  final static private class ColorHandle implements Supplier<Color> {
 
-    final int oldLen = markColor.length;
-    for (int i = 0; i < oldLen; i++) {
-      final Color mkColor = markColor[i];
-      if (mkColor != null) {
-        final int j = (int) Math.round((double) i * numItems / oldLen);
-        array[j] = mkColor;
+    /**
+     * Gradient
+     */
+    final private JDegradeeGradient gradient;
+
+    /**
+     * Index (or <code>-1</code>)
+     */
+    final private int index;
+
+    /**
+     * Calculated color
+     */
+    private Color color;
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Color get() {
+      if (color == null && index >= 0) {
+        color = gradient.calculateColorIndex(index);
       }
+      return color;
+    }
+
+    /**
+     * Constructor
+     *
+     * @param gradient gradient
+     * @param index index (or <code>-1</code>)
+     */
+    ColorHandle(final JDegradeeGradient gradient, final int index) {
+      this.gradient = gradient;
+      this.index = index;
     }
-    markColor = array;
   }
 
   /**
-   * Mounting a color gradient.
-   *
-   * @param primary primary color
-   * @param secondary secondary color
-   * @param factor factor (0.0 up to 1.0)
-   * @return color
+   * Update of the motion callback use flags, checking which adapter methods
+   * are overridden (so motion events cost nothing when nobody listens).
    */
-  static private Color getGradientColor(final Color primary, final Color secondary, final double factor) {
-    final int r1 = primary.getRed();
-    final int g1 = primary.getGreen();
-    final int b1 = primary.getBlue();
-
-    final int r2 = secondary.getRed();
-    final int g2 = secondary.getGreen();
-    final int b2 = secondary.getBlue();
+  private void updateMotionFlags() {
+    moveListened = false;
+    dragListened = false;
+    hoverListened = false;
+    for (JDegradeeAdapter adapter : adapters) {
+      final Class<?> clazz = adapter.getClass();
+      moveListened |= overrides(clazz, "mouseMoved", JDegradee.class, int.class, Color.class, MouseEvent.class);
+      dragListened |= overrides(clazz, "mouseDragged", JDegradee.class, int.class, Color.class, MouseEvent.class);
+      hoverListened |= overrides(clazz, "hoverIndexChanged", JDegradee.class, int.class, int.class, Supplier.class,
+        MouseEvent.class);
+    }
+    if (!hoverListened) {
+      hoverIndex = -1;
+    }
+  }
 
-    final int dr = r2 - r1;
-    final int dg = g2 - g1;
-    final int db = b2 - b1;
+  /**
+   * Checks if an adapter class overrides an adapter method
+   *
+   * @param clazz adapter class
+   * @param name method name
+   * @param types parameter types
+   * @return indicative
+   */
+  static private boolean overrides(final Class<?> clazz, final String name, final Class<?>... types) {
+    try {
+      return clazz.getMethod(name, types).getDeclaringClass() != JDegradeeAdapter.class;
+    }
+    catch (NoSuchMethodException e) {
+      return true;
+    }
+  }
 
-    final int red = (int) Math.round(r1 + dr * factor);
-    final int green = (int) Math.round(g1 + dg * factor);
-    final int blue = (int) Math.round(b1 + db * factor);
+  /**
+   * Drawing through the back buffer: the panel is drawn into the buffer only
+   * when its size (in device pixels) or the drawing version changes;
+   * otherwise the buffer is just copied.
+   *
+   * @param g2d Java graphical context
+   */
+  private void drawBuffer(final Graphics2D g2d) {
+    final int width = getWidth();
+    final int height = getHeight();
+    if (width <= 0 || height <= 0) {
+      return;
+    }
+    final AffineTransform transform = g2d.getTransform();
+    final double sx = Math.abs(transform.getScaleX());
+    final double sy = Math.abs(transform.getScaleY());
+    final int bw = Math.max(1, (int) Math.ceil(width * sx));
+    final int bh = Math.max(1, (int) Math.ceil(height * sy));
+    if (buffer == null || buffer.getWidth() != bw || buffer.getHeight() != bh) {
+      buffer = new BufferedImage(bw, bh, BufferedImage.TYPE_INT_ARGB);
+      bufferVersion = -1;
+    }
+    if (bufferVersion != version || dirtyFirst >= 0) {
+      final Graphics2D bg = buffer.createGraphics();
+      bg.setRenderingHints(g2d.getRenderingHints());
+      bg.setFont(g2d.getFont());
+      bg.scale((double) bw / width, (double) bh / height);
+      if (bufferVersion != version) {
+        JDegradeeMetrics.buffer(2);
+        bg.setComposite(AlphaComposite.Clear);
+        bg.fillRect(0, 0, width, height);
+        bg.setComposite(AlphaComposite.SrcOver);
+        painter.drawPanel(bg);
+      }
+      else {
+        JDegradeeMetrics.buffer(1);
+        final Rectangle region = getItemsRegion(dirtyFirst, dirtyLast);
+        bg.clip(region);
+        bg.setComposite(AlphaComposite.Clear);
+        bg.fill(region);
+        bg.setComposite(AlphaComposite.SrcOver);
+        // Itens near the region are also drawn (renderer overflow)
+        painter.drawPanel(bg, region);
+      }
+      bg.dispose();
+      bufferVersion = version;
+      dirtyFirst = -1;
+      dirtyLast = -1;
+    }
+    else {
+      JDegradeeMetrics.buffer(0);
+    }
+    g2d.drawImage(buffer, 0, 0, width, height, null);
+  }
 
-    final Color color = new Color(red, green, blue);
-    return color;
+  /**
+   * Font adjustment: the drawing is invalidated, since item renderers may
+   * draw with the component font.
+   *
+   * @param font font
+   */
+  @Override
+  final public void setFont(final Font font) {
+    super.setFont(font);
+    invalidateDrawing();
   }
 
   /**
-   * Componetn drawing
+   * Componetn drawing (with no back buffer, only the itens under the clip
+   * are drawn)
    *
    * @param g Java graphical context
    */
   @Override
   final public void paintComponent(final Graphics g) {
+    final long start = JDegradeeMetrics.start();
     final Graphics2D g2d = (Graphics2D) g.create();
-    drawPanel(g2d);
+    try {
+      preparePainter();
+      if (bufferActive) {
+        drawBuffer(g2d);
+      }
+      else {
+        // Kept as the full area when there is no clip
+        clipBounds.setBounds(0, 0, getWidth(), getHeight());
+        painter.drawPanel(g2d, g2d.getClipBounds(clipBounds));
+      }
+    }
+    finally {
+      g2d.dispose();
+      JDegradeeMetrics.paintDone(start);
+    }
   }
 
   /**
@@ -553,6 +957,7 @@ public class JDegradee extends JPanel {
    */
   final public void addDegradeeListener(final JDegradeeAdapter listener) {
     adapters.add(listener);
+    updateMotionFlags();
   }
 
   /**
@@ -562,6 +967,7 @@ public class JDegradee extends JPanel {
    */
   final public void delDegradeeListener(final JDegradeeAdapter listener) {
     adapters.remove(listener);
+    updateMotionFlags();
   }
 
   /**
@@ -580,6 +986,8 @@ public class JDegradee extends JPanel {
    */
   final public void setLineColor(final Color color) {
     this.lineColor = color;
+    invalidateDrawing();
+    repaint();
   }
 
 
@@ -589,7 +997,7 @@ public class JDegradee extends JPanel {
    * @return flag
    */
   final public boolean hasMarkColor(final int index) {
-    return getMarkColor(index) != null;
+    return gradient.hasMarkColor(index);
   }
 
   /**
@@ -599,18 +1007,60 @@ public class JDegradee extends JPanel {
    * @return a cor
    */
   final public Color getMarkColor(final int index) {
-    return markColor[index];
+    return gradient.getMarkColor(index);
+  }
+
+  /**
+   * Number of marks
+   *
+   * @return number of marks
+   */
+  final public int getNumMarks() {
+    return gradient.getNumMarks();
+  }
+
+  /**
+   * Index of a mark, in mark order (allows iteration on the marks only)
+   *
+   * @param n mark order (from 0 up to {@link #getNumMarks()} - 1)
+   * @return index
+   */
+  final public int getNthMarkIndex(final int n) {
+    return gradient.getNthMarkIndex(n);
   }
 
   /**
    * Mark color adjustment (based on an index)
    *
    * @param index index
-   * @param color color
+   * @param color color (or {@code null} to remove the mark)
    */
   final public void setMarkColorIndex(final int index, final Color color) {
-    markColor[index] = color;
-    repaint();
+    final JDegradeeGradient old = gradient;
+    final JDegradeeGradient next = old.withMarkColorIndex(index, color);
+    if (next == old) {
+      return;
+    }
+    changeGradient(next, old.getSegmentFirst(index), old.getSegmentLast(index));
+  }
+
+  /**
+   * Mark move: the mark color is kept and only the itens between the
+   * surrounding marks (of both indexes) are recomputed and repainted.
+   *
+   * @param index mark index
+   * @param newIndex new mark index (with no mark)
+   * @see JDegradeeGradient#withMarkMoved(int, int)
+   */
+  final public void moveMark(final int index, final int newIndex) {
+    final JDegradeeGradient old = gradient;
+    final JDegradeeGradient next = old.withMarkMoved(index, newIndex);
+    if (next == old) {
+      return;
+    }
+    final int first = Math.min(old.getSegmentFirst(index), old.getSegmentFirst(newIndex));
+    final int last = Math.max(old.getSegmentLast(index), old.getSegmentLast(newIndex));
+    changeGradient(next, first, last);
   }
 
   /**
@@ -621,7 +1071,7 @@ public class JDegradee extends JPanel {
    * @see #setMarkColorIndex(int, Color)
    */
   final public void setMarkColorRatio(final double ratio, final Color color) {
-    final int index = (int) Math.round((numItems - 1) * ratio);
+    final int index = (int) Math.round((gradient.getNumItems() - 1) * ratio);
     setMarkColorIndex(index, color);
   }
 
@@ -631,7 +1081,7 @@ public class JDegradee extends JPanel {
    * @return color
    */
   final public Color getPrimaryColor() {
-    return this.priColor;
+    return gradient.getPrimaryColor();
   }
 
   /**
@@ -640,7 +1090,27 @@ public class JDegradee extends JPanel {
    * @return color
    */
   final public Color getSecondaryColor() {
-    return this.secColor;
+    return gradient.getSecondaryColor();
+  }
+
+  /**
+   * Interpolation color space query
+   *
+   * @return color space
+   */
+  final public JDegradeeColorSpace getColorSpace() {
+    return gradient.getColorSpace();
+  }
+
+  /**
+   * Interpolation color space adjustment (the palette is rebuilt once; paint,
+   * hit testing and color queries use it)
+   *
+   * @param colorSpace color space
+   * @see JDegradeeColorSpace
+   */
+  final public void setColorSpace(final JDegradeeColorSpace colorSpace) {
+    setGradient(gradient.withColorSpace(colorSpace));
   }
 
   /**
@@ -649,8 +1119,8 @@ public class JDegradee extends JPanel {
    * @param color color
    */
   final public void setPrimaryColor(final Color color) {
-    this.priColor = color;
-    repaint();
+    final JDegradeeGradient old = gradient;
+    changeGradient(old.withPrimaryColor(color), 0, old.getSegmentLast(-1));
   }
 
   /**
@@ -659,8 +1129,8 @@ public class JDegradee extends JPanel {
    * @param color color
    */
   final public void setSecondaryColor(final Color color) {
-    this.secColor = color;
-    repaint();
+    final JDegradeeGradient old = gradient;
+    changeGradient(old.withSecondaryColor(color), old.getSegmentFirst(old.getNumItems()), old.getNumItems() - 1);
   }
 
   /**
@@ -670,9 +1140,32 @@ public class JDegradee extends JPanel {
    */
   final public void setGridActive(final boolean flag) {
     hasGrid = flag;
+    invalidateDrawing();
+    repaint();
+  }
+
+  /**
+   * Continuous drawing adjustment: itens are drawn as pixel spans (without
+   * grid or item renderers). This mode is always used when there are more
+   * itens than device pixels (so also with no grid and no item renderers).
+   *
+   * @param flag flag
+   */
+  final public void setContinuousActive(final boolean flag) {
+    continuous = flag;
+    invalidateDrawing();
     repaint();
   }
 
+  /**
+   * Continuous drawing query
+   *
+   * @return flag
+   */
+  final public boolean isContinuousActive() {
+    return continuous;
+  }
+
   /**
    * Grid drawing query
    *
@@ -689,9 +1182,34 @@ public class JDegradee extends JPanel {
    */
   final public void setOrientation(final Orientation orientation) {
     this.orientation = orientation;
+    invalidateDrawing();
     repaint();
   }
 
+  /**
+   * Drawing cache (back buffer) adjustment: when active, the widget is drawn
+   * into an image that is reused by repaints while nothing changes.
+   *
+   * @param flag flag
+   */
+  final public void setBufferActive(final boolean flag) {
+    bufferActive = flag;
+    if (!flag) {
+      buffer = null;
+      bufferVersion = -1;
+    }
+    repaint();
+  }
+
+  /**
+   * Drawing cache (back buffer) query
+   *
+   * @return flag
+   */
+  final public boolean isBufferActive() {
+    return bufferActive;
+  }
+
   /**
    * Orientation query
    *
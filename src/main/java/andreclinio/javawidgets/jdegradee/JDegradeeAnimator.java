@@ -0,0 +1,280 @@
+package andreclinio.javawidgets.jdegradee;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.swing.Timer;
+
+/**
+ * Shared scheduler of gradient transitions: a single Swing timer drives the
+ * transitions of all widgets (it runs only while there are transitions).
+ * Each tick advances the transitions by the elapsed time, so a late or
+ * coalesced tick just jumps further. When the tick work would exceed the
+ * frame budget, the remaining transitions skip that frame (except for their
+ * last one) and are served first in the next tick.
+ * <p>
+ * All methods must be called in the Swing event thread.
+ *
+ * @author André Clinio
+ * @see JDegradee#animateGradient(JDegradeeGradient, int)
+ */
+final public class JDegradeeAnimator {
+
+  /**
+   * Default delay between frames (milliseconds)
+   */
+  final static public int DEFAULT_FRAME_DELAY = 16;
+
+  /**
+   * Default work budget of a frame (milliseconds)
+   */
+  final static public int DEFAULT_FRAME_BUDGET = 8;
+
+  /**
+   * Active transitions
+   */
+  final static private List<Transition> transitions = new ArrayList<>();
+
+  /**
+   * Frame timer
+   */
+  final static private Timer timer = new Timer(DEFAULT_FRAME_DELAY, e -> tick());
+
+  /**
+   * Frame budget (nanoseconds)
+   */
+  static private long frameBudget = DEFAULT_FRAME_BUDGET * 1000000L;
+
+  /**
+   * Position of the first transition to be served in the next tick
+   */
+  static private int cursor = 0;
+
+  /**
+   * Frame delay adjustment
+   *
+   * @param millis delay (milliseconds)
+   */
+  static public void setFrameDelay(final int millis) {
+    if (millis < 1) {
+      final String err = "Value out of range (1," + Integer.MAX_VALUE + ")";
+      throw new RuntimeException(err);
+    }
+    timer.setDelay(millis);
+  }
+
+  /**
+   * Frame delay query
+   *
+   * @return delay (milliseconds)
+   */
+  static public int getFrameDelay() {
+    return timer.getDelay();
+  }
+
+  /**
+   * Frame budget adjustment: work time (of all transitions) allowed in a
+   * single tick.
+   *
+   * @param millis budget (milliseconds)
+   */
+  static public void setFrameBudget(final int millis) {
+    if (millis < 1) {
+      final String err = "Value out of range (1," + Integer.MAX_VALUE + ")";
+      throw new RuntimeException(err);
+    }
+    frameBudget = millis * 1000000L;
+  }
+
+  /**
+   * Frame budget query
+   *
+   * @return budget (milliseconds)
+   */
+  static public int getFrameBudget() {
+    return (int) (frameBudget / 1000000L);
+  }
+
+  /**
+   * Number of running transitions
+   *
+   * @return number of transitions
+   */
+  static public int getNumTransitions() {
+    return transitions.size();
+  }
+
+  /**
+   * Transition start (replaces any transition of the same widget)
+   *
+   * @param transition transition
+   */
+  static void start(final Transition transition) {
+    stop(transition.jDegradee);
+    transitions.add(transition);
+    if (!timer.isRunning()) {
+      timer.start();
+    }
+  }
+
+  /**
+   * Transition stop (the widget keeps its current gradient)
+   *
+   * @param jDegradee widget
+   * @return indicative of a stopped transition
+   */
+  static boolean stop(final JDegradee jDegradee) {
+    final int numTransitions = transitions.size();
+    for (int i = 0; i < numTransitions; i++) {
+      if (transitions.get(i).jDegradee == jDegradee) {
+        transitions.remove(i);
+        if (transitions.isEmpty()) {
+          timer.stop();
+        }
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Checks if a widget has a running transition
+   *
+   * @param jDegradee widget
+   * @return indicative
+   */
+  static boolean isRunning(final JDegradee jDegradee) {
+    for (Transition transition : transitions) {
+      if (transition.jDegradee == jDegradee) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * End gradient of the running transition of a widget
+   *
+   * @param jDegradee widget
+   * @return gradient (or {@code null} if there is no running transition)
+   */
+  static JDegradeeGradient getTarget(final JDegradee jDegradee) {
+    for (Transition transition : transitions) {
+      if (transition.jDegradee == jDegradee) {
+        return transition.to;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Frame tick: advances the transitions (round robin) within the budget and
+   * removes the finished ones.
+   */
+  static void tick() {
+    final int numTransitions = transitions.size();
+    if (numTransitions == 0) {
+      timer.stop();
+      return;
+    }
+    final Transition[] served = transitions.toArray(new Transition[numTransitions]);
+    final long tickStart = System.nanoTime();
+    Transition skipped = null;
+    for (int k = 0; k < numTransitions; k++) {
+      final Transition transition = served[(cursor + k) % numTransitions];
+      final long now = System.nanoTime();
+      final boolean finished = now - transition.start >= transition.duration;
+      if (!finished && k > 0 && now - tickStart + transition.cost > frameBudget) {
+        if (skipped == null) {
+          skipped = transition;
+        }
+        continue;
+      }
+      transition.step(now, finished);
+      transition.cost = System.nanoTime() - now;
+      if (finished) {
+        transitions.remove(transition);
+      }
+    }
+    cursor = skipped == null ? 0 : transitions.indexOf(skipped);
+    if (transitions.isEmpty()) {
+      timer.stop();
+    }
+  }
+
+  /**
+   * Transition of a widget between two gradients (with the same number of
+   * itens), with their palettes already built.
+   */
+  static class Transition {
+
+    /**
+     * Widget
+     */
+    final JDegradee jDegradee;
+
+    /**
+     * Start gradient
+     */
+    final JDegradeeGradient from;
+
+    /**
+     * End gradient
+     */
+    final JDegradeeGradient to;
+
+    /**
+     * Start time (nanoseconds)
+     */
+    final long start;
+
+    /**
+     * Duration (nanoseconds)
+     */
+    final long duration;
+
+    /**
+     * Work time of the last frame (nanoseconds)
+     */
+    long cost;
+
+    /**
+     * Frame drawing: the widget gets the intermediate gradient for the
+     * elapsed time (or the end gradient itself when finished).
+     *
+     * @param now current time (nanoseconds)
+     * @param finished indicative of the last frame
+     */
+    void step(final long now, final boolean finished) {
+      if (finished) {
+        jDegradee.applyTransitionFrame(to);
+        return;
+      }
+      final int weight = (int) ((now - start) * 256 / duration);
+      jDegradee.applyTransitionFrame(from.blend(to, weight));
+    }
+
+    /**
+     * Constructor
+     *
+     * @param jDegradee widget
+     * @param from start gradient
+     * @param to end gradient
+     * @param millis duration (milliseconds)
+     */
+    Transition(final JDegradee jDegradee, final JDegradeeGradient from, final JDegradeeGradient to,
+      final int millis) {
+      this.jDegradee = jDegradee;
+      this.from = from;
+      this.to = to;
+      this.start = System.nanoTime();
+      this.duration = millis * 1000000L;
+    }
+  }
+
+  /**
+   * Constructor (no instances)
+   */
+  private JDegradeeAnimator() {
+  }
+}
@@ -0,0 +1,476 @@
+package andreclinio.javawidgets.jdegradee;
+
+import java.awt.Color;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.awt.image.SinglePixelPackedSampleModel;
+import java.awt.image.WritableRaster;
+import java.nio.DoubleBuffer;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Colormapping of numeric samples through a gradient: each value of a range
+ * is quantized into one of the gradient itens (the palette is used as a
+ * lookup table) and its packed ARGB color is stored. Large inputs are split
+ * into chunks mapped in parallel on a fork-join pool.
+ * <p>
+ * Values are quantized exactly like
+ * {@link JDegradeeGradient#calculateColorsRatio}, with the ratio
+ * <code>(value - minimum) / (maximum - minimum)</code>: values outside the
+ * range get the first or the last item color and NaN values get the first
+ * item color (as NaN ratios do), unless a NaN color is set.
+ *
+ * @author André Clinio
+ */
+public class JDegradeeColorMapper {
+
+  /**
+   * Default number of samples mapped by a single task
+   */
+  final static public int DEFAULT_THRESHOLD = 1 << 16;
+
+  /**
+   * Lookup table (gradient palette, not changed)
+   */
+  final private int[] lut;
+
+  /**
+   * Minimum value
+   */
+  final private double minimum;
+
+  /**
+   * Maximum value
+   */
+  final private double maximum;
+
+  /**
+   * Value range (maximum - minimum)
+   */
+  final private double range;
+
+  /**
+   * NaN packed ARGB color (first item color by default)
+   */
+  private int nanRGB;
+
+  /**
+   * Number of samples mapped by a single task
+   */
+  private int threshold = DEFAULT_THRESHOLD;
+
+  /**
+   * Pool for parallel mapping
+   */
+  private ForkJoinPool pool = ForkJoinPool.commonPool();
+
+  /**
+   * Minimum value query
+   *
+   * @return value
+   */
+  final public double getMinimum() {
+    return minimum;
+  }
+
+  /**
+   * Maximum value query
+   *
+   * @return value
+   */
+  final public double getMaximum() {
+    return maximum;
+  }
+
+  /**
+   * NaN color adjustment (for instance, a transparent color to leave NaN
+   * samples out of an image)
+   *
+   * @param color color
+   * @return this mapper
+   */
+  final public JDegradeeColorMapper setNaNColor(final Color color) {
+    if (color == null) {
+      throw new RuntimeException("Null color");
+    }
+    this.nanRGB = color.getRGB();
+    return this;
+  }
+
+  /**
+   * Task size adjustment: inputs with more samples are split and mapped in
+   * parallel.
+   *
+   * @param samples number of samples
+   * @return this mapper
+   */
+  final public JDegradeeColorMapper setThreshold(final int samples) {
+    if (samples < 1) {
+      final String err = "Value out of range (1," + Integer.MAX_VALUE + ")";
+      throw new RuntimeException(err);
+    }
+    this.threshold = samples;
+    return this;
+  }
+
+  /**
+   * Parallel mapping pool adjustment
+   *
+   * @param pool pool
+   * @return this mapper
+   */
+  final public JDegradeeColorMapper setPool(final ForkJoinPool pool) {
+    if (pool == null) {
+      throw new RuntimeException("Null pool");
+    }
+    this.pool = pool;
+    return this;
+  }
+
+  /**
+   * Single value mapping
+   *
+   * @param value value
+   * @return packed ARGB color
+   */
+  final public int mapRGB(final double value) {
+    if (Double.isNaN(value)) {
+      return nanRGB;
+    }
+    final int lastIndex = lut.length - 1;
+    final long index = Math.round(lut.length * ((value - minimum) / range));
+    return lut[index <= 0 ? 0 : index >= lastIndex ? lastIndex : (int) index];
+  }
+
+  /**
+   * Mapping of <code>double</code> samples
+   *
+   * @param values samples
+   * @param valuesOffset first position in <code>values</code>
+   * @param dest array to be filled
+   * @param destOffset first position in <code>dest</code>
+   * @param length number of samples
+   */
+  final public void map(final double[] values, final int valuesOffset, final int[] dest, final int destOffset,
+    final int length) {
+    checkRange(values.length, valuesOffset, length);
+    checkRange(dest.length, destOffset, length);
+    run(values, null, null, valuesOffset, dest, destOffset, length);
+  }
+
+  /**
+   * Mapping of <code>float</code> samples
+   *
+   * @param values samples
+   * @param valuesOffset first position in <code>values</code>
+   * @param dest array to be filled
+   * @param destOffset first position in <code>dest</code>
+   * @param length number of samples
+   */
+  final public void map(final float[] values, final int valuesOffset, final int[] dest, final int destOffset,
+    final int length) {
+    checkRange(values.length, valuesOffset, length);
+    checkRange(dest.length, destOffset, length);
+    run(null, values, null, valuesOffset, dest, destOffset, length);
+  }
+
+  /**
+   * Mapping of the remaining samples of a buffer (its position is not
+   * changed)
+   *
+   * @param values samples
+   * @param dest array to be filled
+   * @param destOffset first position in <code>dest</code>
+   */
+  final public void map(final DoubleBuffer values, final int[] dest, final int destOffset) {
+    final int length = values.remaining();
+    checkRange(dest.length, destOffset, length);
+    if (values.hasArray()) {
+      run(values.array(), null, null, values.arrayOffset() + values.position(), dest, destOffset, length);
+    }
+    else {
+      run(null, null, values, values.position(), dest, destOffset, length);
+    }
+  }
+
+  /**
+   * Mapping of <code>double</code> samples into an image (row-major, one
+   * sample per pixel)
+   *
+   * @param values samples (at least width x height)
+   * @param image image
+   */
+  final public void map(final double[] values, final BufferedImage image) {
+    checkRange(values.length, 0, getPixelCount(image));
+    mapImage(values, null, null, 0, image);
+  }
+
+  /**
+   * Mapping of <code>float</code> samples into an image (row-major, one
+   * sample per pixel)
+   *
+   * @param values samples (at least width x height)
+   * @param image image
+   */
+  final public void map(final float[] values, final BufferedImage image) {
+    checkRange(values.length, 0, getPixelCount(image));
+    mapImage(null, values, null, 0, image);
+  }
+
+  /**
+   * Mapping of the remaining samples of a buffer into an image (row-major,
+   * one sample per pixel; the buffer position is not changed)
+   *
+   * @param values samples (at least width x height remaining)
+   * @param image image
+   */
+  final public void map(final DoubleBuffer values, final BufferedImage image) {
+    checkRange(values.remaining(), 0, getPixelCount(image));
+    if (values.hasArray()) {
+      mapImage(values.array(), null, null, values.arrayOffset() + values.position(), image);
+    }
+    else {
+      mapImage(null, null, values, values.position(), image);
+    }
+  }
+
+  /**
+   * Mapping into an image: written in place for unshared
+   * <code>TYPE_INT_ARGB</code> images, through an intermediate array for
+   * other image types.
+   *
+   * @param doubles <code>double</code> samples (or {@code null})
+   * @param floats <code>float</code> samples (or {@code null})
+   * @param buffer buffer samples (or {@code null})
+   * @param from first sample position
+   * @param image image
+   */
+  private void mapImage(final double[] doubles, final float[] floats, final DoubleBuffer buffer, final int from,
+    final BufferedImage image) {
+    final int width = image.getWidth();
+    final int length = getPixelCount(image);
+    final int[] data = getPixelData(image);
+    if (data != null) {
+      run(doubles, floats, buffer, from, data, 0, length);
+    }
+    else {
+      final int[] pixels = new int[length];
+      run(doubles, floats, buffer, from, pixels, 0, length);
+      image.setRGB(0, 0, width, image.getHeight(), pixels, 0, width);
+    }
+  }
+
+  /**
+   * Mapping execution: directly (small inputs) or split in the pool
+   *
+   * @param doubles <code>double</code> samples (or {@code null})
+   * @param floats <code>float</code> samples (or {@code null})
+   * @param buffer buffer samples (or {@code null})
+   * @param from first sample position
+   * @param dest array to be filled
+   * @param destFrom first position in <code>dest</code>
+   * @param length number of samples
+   */
+  private void run(final double[] doubles, final float[] floats, final DoubleBuffer buffer, final int from,
+    final int[] dest, final int destFrom, final int length) {
+    if (length <= threshold) {
+      mapRange(doubles, floats, buffer, from, dest, destFrom, length);
+    }
+    else {
+      pool.invoke(new MapAction(doubles, floats, buffer, from, dest, destFrom, length));
+    }
+  }
+
+  /**
+   * Sequential mapping of a sample interval
+   *
+   * @param doubles <code>double</code> samples (or {@code null})
+   * @param floats <code>float</code> samples (or {@code null})
+   * @param buffer buffer samples (or {@code null})
+   * @param from first sample position
+   * @param dest array to be filled
+   * @param destFrom first position in <code>dest</code>
+   * @param length number of samples
+   */
+  private void mapRange(final double[] doubles, final float[] floats, final DoubleBuffer buffer, final int from,
+    final int[] dest, final int destFrom, final int length) {
+    if (doubles != null) {
+      for (int i = 0; i < length; i++) {
+        dest[destFrom + i] = mapRGB(doubles[from + i]);
+      }
+    }
+    else if (floats != null) {
+      for (int i = 0; i < length; i++) {
+        dest[destFrom + i] = mapRGB(floats[from + i]);
+      }
+    }
+    else {
+      for (int i = 0; i < length; i++) {
+        dest[destFrom + i] = mapRGB(buffer.get(from + i));
+      }
+    }
+  }
+
+  /**
+   * Parallel mapping task: splits its interval in halves until it fits the
+   * threshold.
+   */
+  private class MapAction extends RecursiveAction {
+
+    /**
+     * <code>double</code> samples (or {@code null})
+     */
+    final private double[] doubles;
+
+    /**
+     * <code>float</code> samples (or {@code null})
+     */
+    final private float[] floats;
+
+    /**
+     * Buffer samples (or {@code null})
+     */
+    final private DoubleBuffer buffer;
+
+    /**
+     * First sample position
+     */
+    final private int from;
+
+    /**
+     * Array to be filled
+     */
+    final private int[] dest;
+
+    /**
+     * First position in the array to be filled
+     */
+    final private int destFrom;
+
+    /**
+     * Number of samples
+     */
+    final private int length;
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void compute() {
+      if (length > threshold) {
+        final int half = length / 2;
+        invokeAll(new MapAction(doubles, floats, buffer, from, dest, destFrom, half),
+          new MapAction(doubles, floats, buffer, from + half, dest, destFrom + half, length - half));
+        return;
+      }
+      mapRange(doubles, floats, buffer, from, dest, destFrom, length);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param doubles <code>double</code> samples (or {@code null})
+     * @param floats <code>float</code> samples (or {@code null})
+     * @param buffer buffer samples (or {@code null})
+     * @param from first sample position
+     * @param dest array to be filled
+     * @param destFrom first position in <code>dest</code>
+     * @param length number of samples
+     */
+    MapAction(final double[] doubles, final float[] floats, final DoubleBuffer buffer, final int from,
+      final int[] dest, final int destFrom, final int length) {
+      this.doubles = doubles;
+      this.floats = floats;
+      this.buffer = buffer;
+      this.from = from;
+      this.dest = dest;
+      this.destFrom = destFrom;
+      this.length = length;
+    }
+  }
+
+  /**
+   * Number of pixels of an image
+   *
+   * @param image image
+   * @return width x height
+   */
+  static private int getPixelCount(final BufferedImage image) {
+    final long count = (long) image.getWidth() * image.getHeight();
+    if (count > Integer.MAX_VALUE) {
+      final String err = "Image too large (" + image.getWidth() + "x" + image.getHeight() + ")";
+      throw new RuntimeException(err);
+    }
+    return (int) count;
+  }
+
+  /**
+   * Image data, when it can be written in place: unshared
+   * <code>TYPE_INT_ARGB</code> images with no row padding.
+   *
+   * @param image image
+   * @return packed ARGB pixels (or {@code null})
+   */
+  static private int[] getPixelData(final BufferedImage image) {
+    if (image.getType() != BufferedImage.TYPE_INT_ARGB) {
+      return null;
+    }
+    final WritableRaster raster = image.getRaster();
+    if (raster.getParent() != null || !(raster.getDataBuffer() instanceof DataBufferInt)
+      || !(raster.getSampleModel() instanceof SinglePixelPackedSampleModel)) {
+      return null;
+    }
+    final SinglePixelPackedSampleModel model = (SinglePixelPackedSampleModel) raster.getSampleModel();
+    final int[] data = ((DataBufferInt) raster.getDataBuffer()).getData();
+    if (model.getScanlineStride() != image.getWidth() || data.length != getPixelCount(image)) {
+      return null;
+    }
+    return data;
+  }
+
+  /**
+   * Array interval validation
+   *
+   * @param arrayLength array length
+   * @param offset first position
+   * @param length interval length
+   */
+  static private void checkRange(final int arrayLength, final int offset, final int length) {
+    if (offset < 0 || length < 0 || offset > arrayLength - length) {
+      final String err = "Array interval out of range (" + offset + "," + length + ")";
+      throw new RuntimeException(err);
+    }
+  }
+
+  /**
+   * Constructor
+   *
+   * @param gradient gradient (its itens are the lookup table)
+   * @param minimum minimum value
+   * @param maximum maximum value
+   */
+  public JDegradeeColorMapper(final JDegradeeGradient gradient, final double minimum, final double maximum) {
+    if (!(minimum < maximum) || Double.isInfinite(maximum - minimum)) {
+      final String err = "Invalid value range (" + minimum + "," + maximum + ")";
+      throw new RuntimeException(err);
+    }
+    this.lut = gradient.getPalette();
+    this.minimum = minimum;
+    this.maximum = maximum;
+    this.range = maximum - minimum;
+    this.nanRGB = lut[0];
+  }
+
+  /**
+   * Constructor (current gradient of a widget; later widget changes are not
+   * seen)
+   *
+   * @param jDegradee widget
+   * @param minimum minimum value
+   * @param maximum maximum value
+   */
+  public JDegradeeColorMapper(final JDegradee jDegradee, final double minimum, final double maximum) {
+    this(jDegradee.getGradient(), minimum, maximum);
+  }
+}
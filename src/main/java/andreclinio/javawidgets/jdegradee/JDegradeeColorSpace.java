@@ -0,0 +1,339 @@
+package andreclinio.javawidgets.jdegradee;
+
+/**
+ * Color space used to interpolate the itens between two colors (primary,
+ * secondary or marks). The conversions are done only when the palette is
+ * built: paint, hit testing and color queries read the precomputed palette.
+ * Alpha is always interpolated linearly.
+ *
+ * @author André Clinio
+ * @see JDegradeeGradient#withColorSpace(JDegradeeColorSpace)
+ */
+public enum JDegradeeColorSpace {
+
+  /**
+   * Plain sRGB channels (fixed-point kernel; the default)
+   */
+  SRGB {
+    @Override
+    void interpolate(final int[] array, final int first, final int last, final int start, final int end,
+      final int fromRGB, final int toRGB) {
+      JDegradeeInterpolator.interpolate(array, first, last, start, end, fromRGB, toRGB);
+    }
+
+    @Override
+    void toSpace(final int rgb, final double[] c) {
+      c[0] = (rgb >> 16) & 0xff;
+      c[1] = (rgb >> 8) & 0xff;
+      c[2] = rgb & 0xff;
+    }
+
+    @Override
+    int fromSpace(final double[] c) {
+      return toRGB(c[0], c[1], c[2]);
+    }
+  },
+
+  /**
+   * Linear (light intensity) RGB channels
+   */
+  LINEAR_RGB {
+    @Override
+    void toSpace(final int rgb, final double[] c) {
+      toLinear(rgb, c);
+    }
+
+    @Override
+    int fromSpace(final double[] c) {
+      return fromLinear(c[0], c[1], c[2]);
+    }
+  },
+
+  /**
+   * CIE L*a*b* (D65 white point)
+   */
+  CIELAB {
+    @Override
+    void toSpace(final int rgb, final double[] c) {
+      toLinear(rgb, c);
+      final double x = (0.4124564 * c[0] + 0.3575761 * c[1] + 0.1804375 * c[2]) / 0.95047;
+      final double y = 0.2126729 * c[0] + 0.7151522 * c[1] + 0.0721750 * c[2];
+      final double z = (0.0193339 * c[0] + 0.1191920 * c[1] + 0.9503041 * c[2]) / 1.08883;
+      final double fx = labF(x);
+      final double fy = labF(y);
+      final double fz = labF(z);
+      c[0] = 116.0 * fy - 16.0;
+      c[1] = 500.0 * (fx - fy);
+      c[2] = 200.0 * (fy - fz);
+    }
+
+    @Override
+    int fromSpace(final double[] c) {
+      final double fy = (c[0] + 16.0) / 116.0;
+      final double x = labInverseF(fy + c[1] / 500.0) * 0.95047;
+      final double y = labInverseF(fy);
+      final double z = labInverseF(fy - c[2] / 200.0) * 1.08883;
+      final double r = 3.2404542 * x - 1.5371385 * y - 0.4985314 * z;
+      final double g = -0.9692660 * x + 1.8760108 * y + 0.0415560 * z;
+      final double b = 0.0556434 * x - 0.2040259 * y + 1.0572252 * z;
+      return fromLinear(r, g, b);
+    }
+  },
+
+  /**
+   * Oklab (perceptually uniform lightness and hue)
+   */
+  OKLAB {
+    @Override
+    void toSpace(final int rgb, final double[] c) {
+      toLinear(rgb, c);
+      final double l = Math.cbrt(0.4122214708 * c[0] + 0.5363325363 * c[1] + 0.0514459929 * c[2]);
+      final double m = Math.cbrt(0.2119034982 * c[0] + 0.6806995451 * c[1] + 0.1073969566 * c[2]);
+      final double s = Math.cbrt(0.0883024619 * c[0] + 0.2817188376 * c[1] + 0.6299787005 * c[2]);
+      c[0] = 0.2104542553 * l + 0.7936177850 * m - 0.0040720468 * s;
+      c[1] = 1.9779984951 * l - 2.4285922050 * m + 0.4505937099 * s;
+      c[2] = 0.0259040371 * l + 0.7827717662 * m - 0.8086757660 * s;
+    }
+
+    @Override
+    int fromSpace(final double[] c) {
+      final double l1 = c[0] + 0.3963377774 * c[1] + 0.2158037573 * c[2];
+      final double m1 = c[0] - 0.1055613458 * c[1] - 0.0638541728 * c[2];
+      final double s1 = c[0] - 0.0894841775 * c[1] - 1.2914855480 * c[2];
+      final double l = l1 * l1 * l1;
+      final double m = m1 * m1 * m1;
+      final double s = s1 * s1 * s1;
+      final double r = 4.0767416621 * l - 3.3077115913 * m + 0.2309699292 * s;
+      final double g = -1.2684380046 * l + 2.6097574011 * m - 0.3413193965 * s;
+      final double b = -0.0041960863 * l - 0.7034186147 * m + 1.7076147010 * s;
+      return fromLinear(r, g, b);
+    }
+  },
+
+  /**
+   * Hue, saturation and value (hue along the shortest arc)
+   */
+  HSV {
+    @Override
+    void toSpace(final int rgb, final double[] c) {
+      final double r = ((rgb >> 16) & 0xff) / 255.0;
+      final double g = ((rgb >> 8) & 0xff) / 255.0;
+      final double b = (rgb & 0xff) / 255.0;
+      final double max = Math.max(r, Math.max(g, b));
+      final double min = Math.min(r, Math.min(g, b));
+      final double chroma = max - min;
+      double hue = 0.0;
+      if (chroma > 0.0) {
+        if (max == r) {
+          hue = (g - b) / chroma;
+        }
+        else if (max == g) {
+          hue = 2.0 + (b - r) / chroma;
+        }
+        else {
+          hue = 4.0 + (r - g) / chroma;
+        }
+        hue = hue / 6.0;
+        if (hue < 0.0) {
+          hue += 1.0;
+        }
+      }
+      c[0] = hue;
+      c[1] = max > 0.0 ? chroma / max : 0.0;
+      c[2] = max;
+    }
+
+    @Override
+    int fromSpace(final double[] c) {
+      final double hue = (c[0] - Math.floor(c[0])) * 6.0;
+      final double r = hsvChannel(5, hue, c[1], c[2]);
+      final double g = hsvChannel(3, hue, c[1], c[2]);
+      final double b = hsvChannel(1, hue, c[1], c[2]);
+      return toRGB(r * 255.0, g * 255.0, b * 255.0);
+    }
+
+    @Override
+    void adjust(final double[] from, final double[] to) {
+      if (from[1] == 0.0) {
+        from[0] = to[0];
+      }
+      else if (to[1] == 0.0) {
+        to[0] = from[0];
+      }
+      if (to[0] - from[0] > 0.5) {
+        from[0] += 1.0;
+      }
+      else if (from[0] - to[0] > 0.5) {
+        to[0] += 1.0;
+      }
+    }
+  };
+
+  /**
+   * sRGB decoding table (8-bit channel to linear intensity)
+   */
+  final static private double[] LINEAR = new double[256];
+
+  static {
+    for (int i = 0; i < LINEAR.length; i++) {
+      final double v = i / 255.0;
+      LINEAR[i] = v <= 0.04045 ? v / 12.92 : Math.pow((v + 0.055) / 1.055, 2.4);
+    }
+  }
+
+  /**
+   * Conversion of a packed color (alpha ignored) into this space
+   *
+   * @param rgb packed color
+   * @param c components to be filled
+   */
+  abstract void toSpace(final int rgb, final double[] c);
+
+  /**
+   * Conversion of components of this space into a packed RGB color (no alpha)
+   *
+   * @param c components
+   * @return packed RGB color
+   */
+  abstract int fromSpace(final double[] c);
+
+  /**
+   * Adjustment of the interval end points before interpolation (e.g. hue
+   * wrapping); nothing is done by default.
+   *
+   * @param from first color components
+   * @param to last color components
+   */
+  void adjust(final double[] from, final double[] to) {
+  }
+
+  /**
+   * Fills an interval of a palette with packed ARGB colors, from
+   * <code>fromRGB</code> at <code>start</code> up to <code>toRGB</code> at
+   * <code>end</code>: the end points are converted once and each item is
+   * interpolated in this space and converted back.
+   *
+   * @param array palette to be filled
+   * @param first first index to be filled
+   * @param last last index to be filled
+   * @param start index of the <code>fromRGB</code> color
+   * @param end index of the <code>toRGB</code> color
+   * @param fromRGB first packed ARGB color
+   * @param toRGB last packed ARGB color
+   */
+  void interpolate(final int[] array, final int first, final int last, final int start, final int end,
+    final int fromRGB, final int toRGB) {
+    if (first > last) {
+      return;
+    }
+    final double[] from = new double[3];
+    final double[] to = new double[3];
+    final double[] c = new double[3];
+    toSpace(fromRGB, from);
+    toSpace(toRGB, to);
+    adjust(from, to);
+    final int fromAlpha = fromRGB >>> 24;
+    final int toAlpha = toRGB >>> 24;
+    final double delta = end - start;
+    for (int i = first; i <= last; i++) {
+      final double t = (i - start) / delta;
+      c[0] = from[0] + (to[0] - from[0]) * t;
+      c[1] = from[1] + (to[1] - from[1]) * t;
+      c[2] = from[2] + (to[2] - from[2]) * t;
+      final int alpha = (int) Math.round(fromAlpha + (toAlpha - fromAlpha) * t);
+      array[i] = alpha << 24 | fromSpace(c);
+    }
+  }
+
+  /**
+   * Conversion of a packed color into linear RGB intensities (0.0 up to 1.0)
+   *
+   * @param rgb packed color
+   * @param c components to be filled
+   */
+  static private void toLinear(final int rgb, final double[] c) {
+    c[0] = LINEAR[(rgb >> 16) & 0xff];
+    c[1] = LINEAR[(rgb >> 8) & 0xff];
+    c[2] = LINEAR[rgb & 0xff];
+  }
+
+  /**
+   * Conversion of linear RGB intensities into a packed RGB color
+   *
+   * @param r red intensity
+   * @param g green intensity
+   * @param b blue intensity
+   * @return packed RGB color
+   */
+  static private int fromLinear(final double r, final double g, final double b) {
+    return toRGB(encode(r) * 255.0, encode(g) * 255.0, encode(b) * 255.0);
+  }
+
+  /**
+   * sRGB encoding of a linear intensity
+   *
+   * @param v intensity
+   * @return encoded value (0.0 up to 1.0)
+   */
+  static private double encode(final double v) {
+    return v <= 0.0031308 ? 12.92 * v : 1.055 * Math.pow(v, 1.0 / 2.4) - 0.055;
+  }
+
+  /**
+   * HSV to RGB channel conversion
+   *
+   * @param n channel offset (5 for red, 3 for green, 1 for blue)
+   * @param hue hue (0.0 up to 6.0)
+   * @param saturation saturation
+   * @param value value
+   * @return channel (0.0 up to 1.0)
+   */
+  static private double hsvChannel(final int n, final double hue, final double saturation, final double value) {
+    final double k = n + hue >= 6.0 ? n + hue - 6.0 : n + hue;
+    return value - value * saturation * Math.max(0.0, Math.min(k, Math.min(4.0 - k, 1.0)));
+  }
+
+  /**
+   * CIELAB forward function
+   *
+   * @param t value
+   * @return result
+   */
+  static private double labF(final double t) {
+    return t > 216.0 / 24389.0 ? Math.cbrt(t) : (24389.0 / 27.0 * t + 16.0) / 116.0;
+  }
+
+  /**
+   * CIELAB inverse function
+   *
+   * @param f value
+   * @return result
+   */
+  static private double labInverseF(final double f) {
+    final double f3 = f * f * f;
+    return f3 > 216.0 / 24389.0 ? f3 : (116.0 * f - 16.0) * 27.0 / 24389.0;
+  }
+
+  /**
+   * Packing of RGB channels (rounded and clamped to 0 up to 255)
+   *
+   * @param r red
+   * @param g green
+   * @param b blue
+   * @return packed RGB color
+   */
+  static private int toRGB(final double r, final double g, final double b) {
+    return clamp(r) << 16 | clamp(g) << 8 | clamp(b);
+  }
+
+  /**
+   * Rounding and clamping of a channel
+   *
+   * @param v value
+   * @return channel (0 up to 255)
+   */
+  static private int clamp(final double v) {
+    final long c = Math.round(v);
+    return c < 0 ? 0 : c > 255 ? 255 : (int) c;
+  }
+}
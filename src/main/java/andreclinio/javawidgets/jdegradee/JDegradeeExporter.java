@@ -0,0 +1,367 @@
+package andreclinio.javawidgets.jdegradee;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import javax.imageio.ImageIO;
+
+import andreclinio.javawidgets.jdegradee.JDegradee.Orientation;
+import andreclinio.javawidgets.jdegradee.renderers.JDegradeeRenderer;
+
+/**
+ * Headless gradient drawing: renders a {@link JDegradeeGradient} (itens,
+ * grid, item renderers and marks) into an image or a PNG stream, with no
+ * Swing component. Large images are split into tiles, rendered in parallel
+ * on a fork-join pool.
+ * <p>
+ * Item renderers are called through
+ * {@link JDegradeeRenderer#render(JDegradeeGradient, Orientation, Graphics2D, java.awt.geom.Rectangle2D, int)}
+ * and, when tiles are used, concurrently (they must be thread-safe).
+ *
+ * @author André Clinio
+ */
+public class JDegradeeExporter {
+
+  /**
+   * Default tile size (pixels)
+   */
+  final static public int DEFAULT_TILE_SIZE = 512;
+
+  /**
+   * Default renderer overflow (pixels)
+   */
+  final static public int DEFAULT_OVERFLOW = 64;
+
+  /**
+   * Gradient
+   */
+  final private JDegradeeGradient gradient;
+
+  /**
+   * Orientation
+   */
+  private Orientation orientation = Orientation.HORIZONTAL;
+
+  /**
+   * Grid drawing flag
+   */
+  private boolean hasGrid = false;
+
+  /**
+   * Line color
+   */
+  private Color lineColor = Color.black;
+
+  /**
+   * Continuous drawing flag
+   */
+  private boolean continuous = false;
+
+  /**
+   * Item renderers
+   */
+  final private List<JDegradeeRenderer> renderers = new ArrayList<>();
+
+  /**
+   * Tile size (pixels)
+   */
+  private int tileSize = DEFAULT_TILE_SIZE;
+
+  /**
+   * Renderer overflow (pixels)
+   */
+  private int overflow = DEFAULT_OVERFLOW;
+
+  /**
+   * Pool for tile rendering
+   */
+  private ForkJoinPool pool = ForkJoinPool.commonPool();
+
+  /**
+   * Orientation adjustment
+   *
+   * @param orientation orientation
+   * @return this exporter
+   */
+  final public JDegradeeExporter setOrientation(final Orientation orientation) {
+    if (orientation == null) {
+      throw new RuntimeException("Null orientation");
+    }
+    this.orientation = orientation;
+    return this;
+  }
+
+  /**
+   * Grid drawing adjustment
+   *
+   * @param flag flag
+   * @return this exporter
+   */
+  final public JDegradeeExporter setGridActive(final boolean flag) {
+    this.hasGrid = flag;
+    return this;
+  }
+
+  /**
+   * Grid line adjustment
+   *
+   * @param color color
+   * @return this exporter
+   */
+  final public JDegradeeExporter setLineColor(final Color color) {
+    this.lineColor = color;
+    return this;
+  }
+
+  /**
+   * Continuous drawing adjustment
+   *
+   * @param flag flag
+   * @return this exporter
+   * @see JDegradee#setContinuousActive(boolean)
+   */
+  final public JDegradeeExporter setContinuousActive(final boolean flag) {
+    this.continuous = flag;
+    return this;
+  }
+
+  /**
+   * Item renderer addition
+   *
+   * @param renderer renderer
+   * @return this exporter
+   */
+  final public JDegradeeExporter addItemRenderer(final JDegradeeRenderer renderer) {
+    renderers.add(renderer);
+    return this;
+  }
+
+  /**
+   * Tile size adjustment: images larger than a tile (in any direction) are
+   * rendered in parallel, one tile per task.
+   *
+   * @param size size (pixels)
+   * @return this exporter
+   */
+  final public JDegradeeExporter setTileSize(final int size) {
+    if (size < 1) {
+      final String err = "Value out of range (1," + Integer.MAX_VALUE + ")";
+      throw new RuntimeException(err);
+    }
+    this.tileSize = size;
+    return this;
+  }
+
+  /**
+   * Renderer overflow adjustment: distance (along the orientation) that
+   * renderer output may exceed its item area. Each tile also draws the itens
+   * within this distance, so the output does not depend on the tile size.
+   *
+   * @param pixels distance (pixels)
+   * @return this exporter
+   */
+  final public JDegradeeExporter setOverflow(final int pixels) {
+    if (pixels < 0) {
+      final String err = "Value out of range (0," + Integer.MAX_VALUE + ")";
+      throw new RuntimeException(err);
+    }
+    this.overflow = pixels;
+    return this;
+  }
+
+  /**
+   * Tile rendering pool adjustment
+   *
+   * @param pool pool
+   * @return this exporter
+   */
+  final public JDegradeeExporter setPool(final ForkJoinPool pool) {
+    if (pool == null) {
+      throw new RuntimeException("Null pool");
+    }
+    this.pool = pool;
+    return this;
+  }
+
+  /**
+   * Gradient query
+   *
+   * @return gradient
+   */
+  final public JDegradeeGradient getGradient() {
+    return gradient;
+  }
+
+  /**
+   * Rendering into a new image (ARGB)
+   *
+   * @param width image width
+   * @param height image height
+   * @return image
+   */
+  final public BufferedImage export(final int width, final int height) {
+    if (width < 1 || height < 1) {
+      final String err = "Invalid image size (" + width + "x" + height + ")";
+      throw new RuntimeException(err);
+    }
+    final BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+    if (width <= tileSize && height <= tileSize) {
+      renderTile(image, width, height, 0, 0);
+    }
+    else {
+      pool.invoke(new TileAction(image, 0, 0, width, height));
+    }
+    return image;
+  }
+
+  /**
+   * Rendering into a PNG stream (the stream is not closed)
+   *
+   * @param width image width
+   * @param height image height
+   * @param stream output stream
+   * @throws IOException in case of writing error
+   */
+  final public void exportPNG(final int width, final int height, final OutputStream stream) throws IOException {
+    final BufferedImage image = export(width, height);
+    if (!ImageIO.write(image, "png", stream)) {
+      throw new IOException("No PNG writer available");
+    }
+  }
+
+  /**
+   * Rendering of an image area (a tile or the full image). The area is drawn
+   * as a translated view of the full image, so itens and marks that cross
+   * tile borders match exactly.
+   *
+   * @param target image (or tile image)
+   * @param width full image width
+   * @param height full image height
+   * @param x X of the target origin (in the full image)
+   * @param y Y of the target origin (in the full image)
+   */
+  private void renderTile(final BufferedImage target, final int width, final int height, final int x,
+    final int y) {
+    final JDegradeePainter painter = new JDegradeePainter();
+    painter.setup(null, gradient, orientation, width, height);
+    painter.setStyle(hasGrid, lineColor, continuous, renderers);
+    final Graphics2D g2d = target.createGraphics();
+    try {
+      g2d.translate(-x, -y);
+      final int start = orientation == Orientation.HORIZONTAL ? x : y;
+      final int size = orientation == Orientation.HORIZONTAL ? target.getWidth() : target.getHeight();
+      final int lo = Math.max(0, start - overflow);
+      final int hi = Math.min(painter.getPixelLength(), start + size + overflow);
+      painter.drawItems(g2d, lo, hi);
+    }
+    finally {
+      g2d.dispose();
+    }
+  }
+
+  /**
+   * Parallel rendering task: splits its area in halves (along the larger
+   * dimension) until it fits a tile.
+   */
+  private class TileAction extends RecursiveAction {
+
+    /**
+     * Full image
+     */
+    final private BufferedImage image;
+
+    /**
+     * Area X
+     */
+    final private int x;
+
+    /**
+     * Area Y
+     */
+    final private int y;
+
+    /**
+     * Area width
+     */
+    final private int w;
+
+    /**
+     * Area height
+     */
+    final private int h;
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void compute() {
+      if (w > tileSize || h > tileSize) {
+        if (w >= h) {
+          final int half = w / 2;
+          invokeAll(new TileAction(image, x, y, half, h), new TileAction(image, x + half, y, w - half, h));
+        }
+        else {
+          final int half = h / 2;
+          invokeAll(new TileAction(image, x, y, w, half), new TileAction(image, x, y + half, w, h - half));
+        }
+        return;
+      }
+      final BufferedImage tile = new BufferedImage(w, h, BufferedImage.TYPE_INT_ARGB);
+      renderTile(tile, image.getWidth(), image.getHeight(), x, y);
+      final int[] pixels = new int[w * h];
+      tile.getRaster().getDataElements(0, 0, w, h, pixels);
+      image.getRaster().setDataElements(x, y, w, h, pixels);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param image full image
+     * @param x area X
+     * @param y area Y
+     * @param w area width
+     * @param h area height
+     */
+    TileAction(final BufferedImage image, final int x, final int y, final int w, final int h) {
+      this.image = image;
+      this.x = x;
+      this.y = y;
+      this.w = w;
+      this.h = h;
+    }
+  }
+
+  /**
+   * Constructor
+   *
+   * @param gradient gradient
+   */
+  public JDegradeeExporter(final JDegradeeGradient gradient) {
+    if (gradient == null) {
+      throw new RuntimeException("Null gradient");
+    }
+    this.gradient = gradient;
+  }
+
+  /**
+   * Constructor: copy of the gradient and drawing options of a widget (its
+   * current state; later widget changes are not seen).
+   *
+   * @param jDegradee widget
+   */
+  public JDegradeeExporter(final JDegradee jDegradee) {
+    this(jDegradee.getGradient());
+    this.orientation = jDegradee.getOrientation();
+    this.hasGrid = jDegradee.isGridActive();
+    this.lineColor = jDegradee.getLineColor();
+    this.continuous = jDegradee.isContinuousActive();
+    this.renderers.addAll(jDegradee.getItemRenderers());
+  }
+}
@@ -0,0 +1,615 @@
+package andreclinio.javawidgets.jdegradee;
+
+import java.awt.BorderLayout;
+import java.awt.Color;
+import java.awt.Component;
+import java.awt.FontMetrics;
+import java.awt.Graphics;
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import javax.swing.AbstractListModel;
+import javax.swing.DefaultListCellRenderer;
+import javax.swing.Icon;
+import javax.swing.JList;
+import javax.swing.JPanel;
+import javax.swing.JScrollPane;
+import javax.swing.ListModel;
+import javax.swing.SwingConstants;
+import javax.swing.SwingUtilities;
+import javax.swing.event.ListSelectionListener;
+
+import andreclinio.javawidgets.jdegradee.JDegradee.Orientation;
+
+/**
+ * Gallery of presets, shown as thumbnails (with their names) in a scrolled
+ * grid. Only the visible cells are rendered, and their thumbnails are drawn
+ * by a background executor (never by the Swing event thread) through
+ * {@link JDegradeeExporter}. Thumbnails are kept in a bounded LRU cache keyed
+ * by a compact descriptor of the gradient content (colors, marks, number of
+ * itens and color space, not the palette), so equal gradients share a
+ * thumbnail; pending thumbnails of cells scrolled out of view are cancelled.
+ *
+ * @author André Clinio
+ * @see JDegradeePresetCatalog
+ */
+public class JDegradeeGallery extends JPanel {
+
+  /**
+   * Default thumbnail width (pixels)
+   */
+  final static public int DEFAULT_THUMBNAIL_WIDTH = 160;
+
+  /**
+   * Default thumbnail height (pixels)
+   */
+  final static public int DEFAULT_THUMBNAIL_HEIGHT = 24;
+
+  /**
+   * Default thumbnail cache size (number of thumbnails)
+   */
+  final static public int DEFAULT_CACHE_SIZE = 1024;
+
+  /**
+   * Cell margin (pixels)
+   */
+  final static private int MARGIN = 4;
+
+  /**
+   * Default executor (shared by galleries; daemon threads)
+   */
+  static private ExecutorService defaultExecutor;
+
+  /**
+   * List
+   */
+  final private JList<JDegradeePreset> list;
+
+  /**
+   * Thumbnail width
+   */
+  private int thumbWidth = DEFAULT_THUMBNAIL_WIDTH;
+
+  /**
+   * Thumbnail height
+   */
+  private int thumbHeight = DEFAULT_THUMBNAIL_HEIGHT;
+
+  /**
+   * Thumbnail cache size
+   */
+  private int cacheSize = DEFAULT_CACHE_SIZE;
+
+  /**
+   * Thumbnail executor
+   */
+  private ExecutorService executor;
+
+  /**
+   * Thumbnail cache (LRU order; event thread only)
+   */
+  final private LinkedHashMap<ThumbnailKey, BufferedImage> cache = new LinkedHashMap<ThumbnailKey, BufferedImage>(
+    16, 0.75f, true) {
+    @Override
+    protected boolean removeEldestEntry(final Map.Entry<ThumbnailKey, BufferedImage> eldest) {
+      return size() > cacheSize;
+    }
+  };
+
+  /**
+   * Pending thumbnails (event thread only)
+   */
+  final private Map<ThumbnailKey, Future<?>> pending = new LinkedHashMap<>();
+
+  /**
+   * Selected preset query
+   *
+   * @return preset (or <code>null</code>)
+   */
+  final public JDegradeePreset getSelectedPreset() {
+    return list.getSelectedValue();
+  }
+
+  /**
+   * Selected preset position query
+   *
+   * @return position (or -1)
+   */
+  final public int getSelectedIndex() {
+    return list.getSelectedIndex();
+  }
+
+  /**
+   * Selection adjustment
+   *
+   * @param index preset position (or -1)
+   */
+  final public void setSelectedIndex(final int index) {
+    list.setSelectedIndex(index);
+    if (index >= 0) {
+      list.ensureIndexIsVisible(index);
+    }
+  }
+
+  /**
+   * Selection listener addition
+   *
+   * @param listener listener
+   */
+  final public void addListSelectionListener(final ListSelectionListener listener) {
+    list.addListSelectionListener(listener);
+  }
+
+  /**
+   * Selection listener removal
+   *
+   * @param listener listener
+   */
+  final public void delListSelectionListener(final ListSelectionListener listener) {
+    list.removeListSelectionListener(listener);
+  }
+
+  /**
+   * Thumbnail size adjustment (cached thumbnails are discarded)
+   *
+   * @param width width (pixels)
+   * @param height height (pixels)
+   */
+  final public void setThumbnailSize(final int width, final int height) {
+    if (width < 1 || height < 1) {
+      final String err = "Invalid thumbnail size (" + width + "x" + height + ")";
+      throw new RuntimeException(err);
+    }
+    thumbWidth = width;
+    thumbHeight = height;
+    cancelPending(null);
+    cache.clear();
+    updateCellSize();
+  }
+
+  /**
+   * Thumbnail cache size adjustment
+   *
+   * @param size maximum number of cached thumbnails
+   */
+  final public void setCacheSize(final int size) {
+    if (size < 1) {
+      final String err = "Value out of range (1," + Integer.MAX_VALUE + ")";
+      throw new RuntimeException(err);
+    }
+    cacheSize = size;
+    final Iterator<ThumbnailKey> iterator = cache.keySet().iterator();
+    while (cache.size() > cacheSize) {
+      iterator.next();
+      iterator.remove();
+    }
+  }
+
+  /**
+   * Thumbnail executor adjustment (the gallery does not shut it down)
+   *
+   * @param executor executor
+   */
+  final public void setExecutor(final ExecutorService executor) {
+    if (executor == null) {
+      throw new RuntimeException("Null executor");
+    }
+    cancelPending(null);
+    this.executor = executor;
+    list.repaint();
+  }
+
+  /**
+   * Number of cached thumbnails
+   *
+   * @return number of thumbnails
+   */
+  final public int getNumCachedThumbnails() {
+    return cache.size();
+  }
+
+  /**
+   * Number of thumbnails being drawn (or waiting to be drawn)
+   *
+   * @return number of thumbnails
+   */
+  final public int getNumPendingThumbnails() {
+    return pending.size();
+  }
+
+  /**
+   * Thumbnail query: a cached thumbnail or, if there is none, a request of
+   * its drawing (the list is repainted when it is ready).
+   *
+   * @param gradient gradient
+   * @return thumbnail (or <code>null</code> while it is drawn)
+   */
+  private BufferedImage getThumbnail(final JDegradeeGradient gradient) {
+    final ThumbnailKey key = new ThumbnailKey(gradient, thumbWidth, thumbHeight);
+    final BufferedImage image = cache.get(key);
+    if (image != null || pending.containsKey(key)) {
+      return image;
+    }
+    final ExecutorService service = executor != null ? executor : getDefaultExecutor();
+    pending.put(key, service.submit(() -> {
+      BufferedImage thumbnail = null;
+      try {
+        thumbnail = new JDegradeeExporter(gradient).setOrientation(Orientation.HORIZONTAL).export(key.width,
+          key.height);
+      }
+      finally {
+        final BufferedImage drawn = thumbnail;
+        SwingUtilities.invokeLater(() -> thumbnailReady(key, drawn));
+      }
+    }));
+    return null;
+  }
+
+  /**
+   * Drawn thumbnail storage (event thread)
+   *
+   * @param key thumbnail key
+   * @param image thumbnail (or <code>null</code> if the drawing failed: the
+   *        cell keeps its placeholder and the drawing is requested again when
+   *        the cell is painted)
+   */
+  private void thumbnailReady(final ThumbnailKey key, final BufferedImage image) {
+    pending.remove(key);
+    if (image == null || key.width != thumbWidth || key.height != thumbHeight) {
+      return;
+    }
+    cache.put(key, image);
+    list.repaint();
+  }
+
+  /**
+   * Cancellation of the pending thumbnails that are not in a set
+   *
+   * @param kept keys to be kept (or <code>null</code> for none)
+   */
+  private void cancelPending(final Set<ThumbnailKey> kept) {
+    final Iterator<Map.Entry<ThumbnailKey, Future<?>>> iterator = pending.entrySet().iterator();
+    while (iterator.hasNext()) {
+      final Map.Entry<ThumbnailKey, Future<?>> entry = iterator.next();
+      if (kept == null || !kept.contains(entry.getKey())) {
+        entry.getValue().cancel(false);
+        iterator.remove();
+      }
+    }
+  }
+
+  /**
+   * Cancellation of the pending thumbnails of cells out of view
+   */
+  private void cancelHiddenPending() {
+    if (pending.isEmpty()) {
+      return;
+    }
+    final int first = list.getFirstVisibleIndex();
+    final int last = list.getLastVisibleIndex();
+    final ListModel<JDegradeePreset> model = list.getModel();
+    final Set<ThumbnailKey> visible = new HashSet<>();
+    for (int i = Math.max(0, first); i <= last; i++) {
+      visible.add(new ThumbnailKey(model.getElementAt(i).getGradient(), thumbWidth, thumbHeight));
+    }
+    cancelPending(visible);
+  }
+
+  /**
+   * Cell size update (thumbnail and name)
+   */
+  private void updateCellSize() {
+    final FontMetrics metrics = list.getFontMetrics(list.getFont());
+    list.setFixedCellWidth(thumbWidth + 2 * MARGIN);
+    list.setFixedCellHeight(thumbHeight + metrics.getHeight() + 3 * MARGIN);
+  }
+
+  /**
+   * Default executor (created at the first use)
+   *
+   * @return executor
+   */
+  static synchronized private ExecutorService getDefaultExecutor() {
+    if (defaultExecutor == null) {
+      final int numThreads = Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+      defaultExecutor = Executors.newFixedThreadPool(numThreads, runnable -> {
+        final Thread thread = new Thread(runnable, "JDegradeeGallery thumbnails");
+        thread.setDaemon(true);
+        return thread;
+      });
+    }
+    return defaultExecutor;
+  }
+
+  /**
+   * Thumbnail cache key: gradient content descriptor and size. The palette
+   * (up to {@link JDegradee#MAX_ITENS} colors) is not kept, since it is
+   * defined by the other parts; only transition frames, whose palette is
+   * not, keep their gradient.
+   */
+  final static private class ThumbnailKey {
+
+    /**
+     * Gradient content hash
+     */
+    final int hash;
+
+    /**
+     * Number of itens
+     */
+    final int numItems;
+
+    /**
+     * Color space
+     */
+    final JDegradeeColorSpace space;
+
+    /**
+     * Primary and secondary packed ARGB colors, then index and packed ARGB
+     * color of each mark
+     */
+    final int[] colors;
+
+    /**
+     * Transition frame (or <code>null</code>)
+     */
+    final JDegradeeGradient frame;
+
+    /**
+     * Width
+     */
+    final int width;
+
+    /**
+     * Height
+     */
+    final int height;
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean equals(final Object object) {
+      if (!(object instanceof ThumbnailKey)) {
+        return false;
+      }
+      final ThumbnailKey other = (ThumbnailKey) object;
+      return hash == other.hash && width == other.width && height == other.height && numItems == other.numItems
+        && space == other.space && Arrays.equals(colors, other.colors)
+        && (frame == null ? other.frame == null : frame.equals(other.frame));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int hashCode() {
+      return (hash * 31 + width) * 31 + height;
+    }
+
+    /**
+     * Constructor
+     *
+     * @param gradient gradient
+     * @param width width
+     * @param height height
+     */
+    ThumbnailKey(final JDegradeeGradient gradient, final int width, final int height) {
+      final int numMarks = gradient.getNumMarks();
+      this.hash = gradient.hashCode();
+      this.numItems = gradient.getNumItems();
+      this.space = gradient.getColorSpace();
+      this.colors = new int[2 + 2 * numMarks];
+      this.colors[0] = gradient.getPrimaryColor().getRGB();
+      this.colors[1] = gradient.getSecondaryColor().getRGB();
+      for (int n = 0; n < numMarks; n++) {
+        final int index = gradient.getNthMarkIndex(n);
+        this.colors[2 + 2 * n] = index;
+        this.colors[3 + 2 * n] = gradient.getMarkColor(index).getRGB();
+      }
+      this.frame = gradient.isBlended() ? gradient : null;
+      this.width = width;
+      this.height = height;
+    }
+  }
+
+  /**
+   * Cell renderer: the preset name under its thumbnail (or a placeholder)
+   */
+  private class CellRenderer extends DefaultListCellRenderer implements Icon {
+
+    /**
+     * Current thumbnail (or <code>null</code>)
+     */
+    private BufferedImage image;
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Component getListCellRendererComponent(final JList<?> jList, final Object value, final int index,
+      final boolean isSelected, final boolean cellHasFocus) {
+      super.getListCellRendererComponent(jList, value, index, isSelected, cellHasFocus);
+      image = getThumbnail(((JDegradeePreset) value).getGradient());
+      setIcon(this);
+      return this;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void paintIcon(final Component c, final Graphics g, final int x, final int y) {
+      if (image != null) {
+        g.drawImage(image, x, y, null);
+        return;
+      }
+      g.setColor(Color.lightGray);
+      g.fillRect(x, y, thumbWidth, thumbHeight);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getIconWidth() {
+      return thumbWidth;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getIconHeight() {
+      return thumbHeight;
+    }
+
+    /**
+     * Constructor
+     */
+    CellRenderer() {
+      setHorizontalAlignment(SwingConstants.CENTER);
+      setHorizontalTextPosition(SwingConstants.CENTER);
+      setVerticalTextPosition(SwingConstants.BOTTOM);
+      setIconTextGap(MARGIN);
+    }
+  }
+
+  /**
+   * Catalog list model: presets are decoded when shown, and the last ones
+   * are kept.
+   */
+  final static private class CatalogModel extends AbstractListModel<JDegradeePreset> {
+
+    /**
+     * Number of decoded presets kept
+     */
+    final static private int KEPT = 256;
+
+    /**
+     * Catalog
+     */
+    final private JDegradeePresetCatalog catalog;
+
+    /**
+     * Decoded presets (LRU order)
+     */
+    final private LinkedHashMap<Integer, JDegradeePreset> decoded = new LinkedHashMap<Integer, JDegradeePreset>(
+      16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(final Map.Entry<Integer, JDegradeePreset> eldest) {
+        return size() > KEPT;
+      }
+    };
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getSize() {
+      return catalog.getNumPresets();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public JDegradeePreset getElementAt(final int index) {
+      JDegradeePreset preset = decoded.get(index);
+      if (preset == null) {
+        preset = catalog.getPreset(index);
+        decoded.put(index, preset);
+      }
+      return preset;
+    }
+
+    /**
+     * Constructor
+     *
+     * @param catalog catalog
+     */
+    CatalogModel(final JDegradeePresetCatalog catalog) {
+      this.catalog = catalog;
+    }
+  }
+
+  /**
+   * Preset list model
+   */
+  final static private class PresetModel extends AbstractListModel<JDegradeePreset> {
+
+    /**
+     * Presets
+     */
+    final private List<JDegradeePreset> presets;
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getSize() {
+      return presets.size();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public JDegradeePreset getElementAt(final int index) {
+      return presets.get(index);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param presets presets
+     */
+    PresetModel(final List<JDegradeePreset> presets) {
+      this.presets = presets;
+    }
+  }
+
+  /**
+   * Constructor
+   *
+   * @param model presets model
+   */
+  public JDegradeeGallery(final ListModel<JDegradeePreset> model) {
+    super(new BorderLayout());
+    list = new JList<>(model);
+    list.setLayoutOrientation(JList.HORIZONTAL_WRAP);
+    list.setVisibleRowCount(-1);
+    list.setCellRenderer(new CellRenderer());
+    updateCellSize();
+    final JScrollPane scroll = new JScrollPane(list);
+    scroll.getViewport().addChangeListener(e -> cancelHiddenPending());
+    add(scroll, BorderLayout.CENTER);
+  }
+
+  /**
+   * Constructor (fixed list of presets)
+   *
+   * @param presets presets
+   */
+  public JDegradeeGallery(final List<JDegradeePreset> presets) {
+    this(new PresetModel(presets));
+  }
+
+  /**
+   * Constructor (presets of a catalog)
+   *
+   * @param catalog catalog
+   */
+  public JDegradeeGallery(final JDegradeePresetCatalog catalog) {
+    this(new CatalogModel(catalog));
+  }
+}
@@ -0,0 +1,1091 @@
+package andreclinio.javawidgets.jdegradee;
+
+import java.awt.Color;
+import java.util.Arrays;
+
+/**
+ * Immutable gradient definition (number of itens, primary and secondary
+ * colors and marks) with its precomputed palette. Changes are made through
+ * the <code>with...</code> methods, that build new instances (copy on
+ * write). Instances are thread-safe and may be shared with no locking.
+ * <p>
+ * Colors may be translucent: the alpha channel is interpolated as the color
+ * channels.
+ *
+ * @author André Clinio
+ * @see JDegradee
+ */
+public final class JDegradeeGradient {
+
+  /**
+   * Number of itens
+   */
+  final private int numItems;
+
+  /**
+   * Primary color
+   */
+  final private Color priColor;
+
+  /**
+   * Secondary color
+   */
+  final private Color secColor;
+
+  /**
+   * Interpolation color space
+   */
+  final private JDegradeeColorSpace space;
+
+  /**
+   * Markers' indexes (sorted)
+   */
+  final private int[] markIndexes;
+
+  /**
+   * Markers' colors (parallel to {@link #markIndexes})
+   */
+  final private Color[] markColors;
+
+  /**
+   * Packed ARGB colors of all itens
+   */
+  final private int[] palette;
+
+  /**
+   * Indicative of a transition frame palette (blended, not built from the
+   * colors and marks)
+   */
+  final private boolean blended;
+
+  /**
+   * Content hash (lazily calculated; 0 if not yet calculated)
+   */
+  private int hash;
+
+  /**
+   * Number of itens
+   *
+   * @return number of itens
+   */
+  final public int getNumItems() {
+    return numItems;
+  }
+
+  /**
+   * Primary color query
+   *
+   * @return color
+   */
+  final public Color getPrimaryColor() {
+    return priColor;
+  }
+
+  /**
+   * Secondary color query
+   *
+   * @return color
+   */
+  final public Color getSecondaryColor() {
+    return secColor;
+  }
+
+  /**
+   * Interpolation color space query
+   *
+   * @return color space
+   */
+  final public JDegradeeColorSpace getColorSpace() {
+    return space;
+  }
+
+  /**
+   * Number of marks
+   *
+   * @return number of marks
+   */
+  final public int getNumMarks() {
+    return markIndexes.length;
+  }
+
+  /**
+   * Index of a mark, in mark order (allows iteration on the marks only)
+   *
+   * @param n mark order (from 0 up to {@link #getNumMarks()} - 1)
+   * @return index
+   */
+  final public int getNthMarkIndex(final int n) {
+    if (n < 0 || n >= markIndexes.length) {
+      final String err = "Mark out of range (0," + (markIndexes.length - 1) + ")";
+      throw new RuntimeException(err);
+    }
+    return markIndexes[n];
+  }
+
+  /**
+   * Check for the existence of a mark color
+   *
+   * @param index index
+   * @return flag
+   */
+  final public boolean hasMarkColor(final int index) {
+    return findMark(index) >= 0;
+  }
+
+  /**
+   * Mark color query
+   *
+   * @param index index
+   * @return color (or {@code null} if there is no mark)
+   */
+  final public Color getMarkColor(final int index) {
+    final int pos = findMark(index);
+    return pos >= 0 ? markColors[pos] : null;
+  }
+
+  /**
+   * Search of the nearest mark before an index
+   *
+   * @param index index
+   * @return mark index (or -1 if does not exist)
+   */
+  final public int getMarkBefore(final int index) {
+    final int pos = findMark(index);
+    final int prev = (pos >= 0 ? pos : -pos - 1) - 1;
+    return prev >= 0 ? markIndexes[prev] : -1;
+  }
+
+  /**
+   * Search of the nearest mark after an index
+   *
+   * @param index index
+   * @return mark index (or -1 if does not exist)
+   */
+  final public int getMarkAfter(final int index) {
+    final int pos = findMark(index);
+    final int next = pos >= 0 ? pos + 1 : -pos - 1;
+    return next < markIndexes.length ? markIndexes[next] : -1;
+  }
+
+  /**
+   * First item whose color depends on the same marks as an index (the item
+   * after the previous mark)
+   *
+   * @param index index
+   * @return first index
+   */
+  final int getSegmentFirst(final int index) {
+    return getMarkBefore(index) + 1;
+  }
+
+  /**
+   * Last item whose color depends on the same marks as an index (the item
+   * before the next mark)
+   *
+   * @param index index
+   * @return last index
+   */
+  final int getSegmentLast(final int index) {
+    final int next = getMarkAfter(index);
+    return next >= 0 ? next - 1 : numItems - 1;
+  }
+
+  /**
+   * Search of the position (in mark order) of an index
+   *
+   * @param index search index
+   * @return mark position (or <code>-(insertion point) - 1</code> if the index
+   *         has no mark)
+   * @see Arrays#binarySearch(int[], int)
+   */
+  final int findMark(final int index) {
+    return Arrays.binarySearch(markIndexes, index);
+  }
+
+  /**
+   * Query an adjusted color based on a percentage .
+   *
+   * @param ratio percentage
+   * @return color
+   * @see #calculateColorIndex(int)
+   */
+  final public Color calculateColorRatio(final double ratio) {
+    final int index = (int) Math.round(numItems * ratio);
+    return calculateColorIndex(index);
+  }
+
+  /**
+   * Calculates the color of an item based on the marks and colors. (primary and
+   * ssecondary)
+   *
+   * @param index index
+   * @return color
+   * @see #getColorRGB(int)
+   */
+  final public Color calculateColorIndex(final int index) {
+    final int pos = findMark(index);
+    if (pos >= 0) {
+      return markColors[pos];
+    }
+    return new Color(palette[index], true);
+  }
+
+  /**
+   * Queries the packed ARGB color of an item (no object allocation).
+   *
+   * @param index index
+   * @return packed ARGB color
+   * @see #calculateColorIndex(int)
+   */
+  final public int getColorRGB(final int index) {
+    return palette[index];
+  }
+
+  /**
+   * Bulk query of the packed ARGB colors of all itens (a single copy of the
+   * palette, no object allocation).
+   *
+   * @param dest array to be filled (from <code>offset</code> on, with
+   *        {@link #getNumItems()} colors)
+   * @param offset first position in <code>dest</code>
+   * @see #getColorRGB(int)
+   */
+  final public void getColorsRGB(final int[] dest, final int offset) {
+    checkRange(dest.length, offset, numItems);
+    System.arraycopy(palette, 0, dest, offset, numItems);
+  }
+
+  /**
+   * Bulk query of colors based on percentages: each ratio is mapped to an
+   * item (as in {@link #calculateColorRatio(double)}, but clamped to the
+   * valid itens) and its packed ARGB color is stored, in a single pass and
+   * with no object allocation.
+   *
+   * @param ratios percentages
+   * @param ratiosOffset first position in <code>ratios</code>
+   * @param dest array to be filled
+   * @param destOffset first position in <code>dest</code>
+   * @param length number of colors
+   */
+  final public void calculateColorsRatio(final double[] ratios, final int ratiosOffset, final int[] dest,
+    final int destOffset, final int length) {
+    checkRange(ratios.length, ratiosOffset, length);
+    checkRange(dest.length, destOffset, length);
+    final int lastIndex = numItems - 1;
+    for (int i = 0; i < length; i++) {
+      final long index = Math.round(numItems * ratios[ratiosOffset + i]);
+      dest[destOffset + i] = palette[index <= 0 ? 0 : index >= lastIndex ? lastIndex : (int) index];
+    }
+  }
+
+  /**
+   * Bulk query of colors based on percentages (all ratios)
+   *
+   * @param ratios percentages
+   * @param dest array to be filled (at least as long as <code>ratios</code>)
+   * @see #calculateColorsRatio(double[], int, int[], int, int)
+   */
+  final public void calculateColorsRatio(final double[] ratios, final int[] dest) {
+    calculateColorsRatio(ratios, 0, dest, 0, ratios.length);
+  }
+
+  /**
+   * Internal palette access (the array must not be changed)
+   *
+   * @return packed ARGB colors of all itens
+   */
+  final int[] getPalette() {
+    return palette;
+  }
+
+  /**
+   * Builds a gradient with another number of itens. Marks are moved to the
+   * proportional position in the new number of itens.
+   *
+   * @param newNumItems number of itens
+   * @return gradient
+   */
+  final public JDegradeeGradient withNumItems(final int newNumItems) {
+    return edit().setNumItems(newNumItems).build();
+  }
+
+  /**
+   * Builds a gradient with another primary color. Only the itens before the
+   * first mark are recomputed.
+   *
+   * @param color color
+   * @return gradient
+   */
+  final public JDegradeeGradient withPrimaryColor(final Color color) {
+    checkColor(color);
+    return new JDegradeeGradient(numItems, color, secColor, space, markIndexes, markColors, getBasePalette(), 0,
+      getSegmentLast(-1));
+  }
+
+  /**
+   * Builds a gradient with another secondary color. Only the itens after the
+   * last mark are recomputed.
+   *
+   * @param color color
+   * @return gradient
+   */
+  final public JDegradeeGradient withSecondaryColor(final Color color) {
+    checkColor(color);
+    return new JDegradeeGradient(numItems, priColor, color, space, markIndexes, markColors, getBasePalette(),
+      getSegmentFirst(numItems), numItems - 1);
+  }
+
+  /**
+   * Builds a gradient with a mark color adjustment. Only the itens between the
+   * neighbor marks are recomputed.
+   *
+   * @param index index
+   * @param color color (or {@code null} to remove the mark)
+   * @return gradient
+   */
+  final public JDegradeeGradient withMarkColorIndex(final int index, final Color color) {
+    if (index < 0 || index >= numItems) {
+      final String err = "Index out of range (0," + (numItems - 1) + ")";
+      throw new RuntimeException(err);
+    }
+    final int pos = findMark(index);
+    final int[] indexes;
+    final Color[] colors;
+    if (pos >= 0 && color == null) {
+      final int numMarks = markIndexes.length;
+      indexes = new int[numMarks - 1];
+      colors = new Color[numMarks - 1];
+      System.arraycopy(markIndexes, 0, indexes, 0, pos);
+      System.arraycopy(markColors, 0, colors, 0, pos);
+      System.arraycopy(markIndexes, pos + 1, indexes, pos, numMarks - pos - 1);
+      System.arraycopy(markColors, pos + 1, colors, pos, numMarks - pos - 1);
+    }
+    else if (pos >= 0) {
+      indexes = markIndexes;
+      colors = markColors.clone();
+      colors[pos] = color;
+    }
+    else if (color != null) {
+      final int numMarks = markIndexes.length;
+      final int ins = -pos - 1;
+      indexes = new int[numMarks + 1];
+      colors = new Color[numMarks + 1];
+      System.arraycopy(markIndexes, 0, indexes, 0, ins);
+      System.arraycopy(markColors, 0, colors, 0, ins);
+      System.arraycopy(markIndexes, ins, indexes, ins + 1, numMarks - ins);
+      System.arraycopy(markColors, ins, colors, ins + 1, numMarks - ins);
+      indexes[ins] = index;
+      colors[ins] = color;
+    }
+    else {
+      return this;
+    }
+    return new JDegradeeGradient(numItems, priColor, secColor, space, indexes, colors, getBasePalette(),
+      getSegmentFirst(index), getSegmentLast(index));
+  }
+
+  /**
+   * Builds a gradient with a mark moved to another index (with the same
+   * color). Only the segments around its old and new indexes are
+   * recomputed.
+   *
+   * @param index mark index
+   * @param newIndex new mark index (with no mark)
+   * @return gradient
+   */
+  final public JDegradeeGradient withMarkMoved(final int index, final int newIndex) {
+    if (newIndex < 0 || newIndex >= numItems) {
+      final String err = "Index out of range (0," + (numItems - 1) + ")";
+      throw new RuntimeException(err);
+    }
+    final int pos = index >= 0 && index < numItems ? findMark(index) : -1;
+    if (pos < 0) {
+      throw new RuntimeException("No mark at index " + index);
+    }
+    if (newIndex == index) {
+      return this;
+    }
+    if (findMark(newIndex) >= 0) {
+      throw new RuntimeException("Mark already at index " + newIndex);
+    }
+    final int numMarks = markIndexes.length;
+    final int ins = -findMark(newIndex) - 1;
+    final int[] indexes = new int[numMarks];
+    final Color[] colors = new Color[numMarks];
+    final int to = ins > pos ? ins - 1 : ins;
+    int src = 0;
+    for (int dst = 0; dst < numMarks; dst++) {
+      if (dst == to) {
+        indexes[dst] = newIndex;
+        colors[dst] = markColors[pos];
+        continue;
+      }
+      if (src == pos) {
+        src++;
+      }
+      indexes[dst] = markIndexes[src];
+      colors[dst] = markColors[src];
+      src++;
+    }
+    final int first = Math.min(getSegmentFirst(index), getSegmentFirst(newIndex));
+    final int last = Math.max(getSegmentLast(index), getSegmentLast(newIndex));
+    return new JDegradeeGradient(numItems, priColor, secColor, space, indexes, colors, getBasePalette(), first,
+      last);
+  }
+
+  /**
+   * Builds a gradient with another interpolation color space (all itens are
+   * recomputed).
+   *
+   * @param colorSpace color space
+   * @return gradient
+   */
+  final public JDegradeeGradient withColorSpace(final JDegradeeColorSpace colorSpace) {
+    if (colorSpace == null) {
+      throw new RuntimeException("Null color space");
+    }
+    if (colorSpace == space) {
+      return this;
+    }
+    return edit().setColorSpace(colorSpace).build();
+  }
+
+  /**
+   * Editor creation: a mutable copy of this gradient, for several changes
+   * with a single palette building.
+   *
+   * @return editor
+   */
+  final public Editor edit() {
+    return new Editor(this);
+  }
+
+  /**
+   * Content equality: same number of itens, colors, color space and marks
+   * (so same palette). Transition frames are also compared by palette, since
+   * it is not defined by the other parts.
+   *
+   * @param object other object
+   * @return indicative
+   */
+  @Override
+  final public boolean equals(final Object object) {
+    if (object == this) {
+      return true;
+    }
+    if (!(object instanceof JDegradeeGradient)) {
+      return false;
+    }
+    final JDegradeeGradient other = (JDegradeeGradient) object;
+    return numItems == other.numItems && space == other.space && priColor.equals(other.priColor)
+      && secColor.equals(other.secColor) && Arrays.equals(markIndexes, other.markIndexes)
+      && Arrays.equals(markColors, other.markColors)
+      && (!blended && !other.blended || Arrays.equals(palette, other.palette));
+  }
+
+  /**
+   * Content hash (consistent with {@link #equals(Object)}), calculated once
+   *
+   * @return hash
+   */
+  @Override
+  final public int hashCode() {
+    int h = hash;
+    if (h == 0) {
+      h = numItems;
+      h = 31 * h + space.ordinal();
+      h = 31 * h + priColor.getRGB();
+      h = 31 * h + secColor.getRGB();
+      h = 31 * h + Arrays.hashCode(markIndexes);
+      h = 31 * h + Arrays.hashCode(markColors);
+      hash = h;
+    }
+    return h;
+  }
+
+  /**
+   * Intermediate gradient of a transition into a target gradient (with the
+   * same number of itens): each item color is a blend of both palettes and
+   * the marks are the target ones, with blended colors.
+   *
+   * @param target target gradient
+   * @param weight target weight (0 up to 256)
+   * @return gradient
+   */
+  final JDegradeeGradient blend(final JDegradeeGradient target, final int weight) {
+    if (target.numItems != numItems) {
+      throw new RuntimeException("Number of itens mismatch (" + numItems + "," + target.numItems + ")");
+    }
+    final int[] array = new int[numItems];
+    final int[] to = target.palette;
+    for (int i = 0; i < numItems; i++) {
+      array[i] = blendRGB(palette[i], to[i], weight);
+    }
+    final int numMarks = target.markIndexes.length;
+    final Color[] colors = new Color[numMarks];
+    for (int pos = 0; pos < numMarks; pos++) {
+      colors[pos] = new Color(array[target.markIndexes[pos]], true);
+    }
+    final Color pri = new Color(blendRGB(priColor.getRGB(), target.priColor.getRGB(), weight), true);
+    final Color sec = new Color(blendRGB(secColor.getRGB(), target.secColor.getRGB(), weight), true);
+    return new JDegradeeGradient(numItems, pri, sec, target.space, target.markIndexes, colors, array);
+  }
+
+  /**
+   * Checks if this is a transition frame (its palette is not defined by its
+   * colors and marks)
+   *
+   * @return indicative
+   */
+  final boolean isBlended() {
+    return blended;
+  }
+
+  /**
+   * Palette to be copied (and partially updated) by a derived gradient
+   *
+   * @return palette (or {@code null} for a transition frame, whose derived
+   *         gradients have their palette fully built)
+   */
+  private int[] getBasePalette() {
+    return blended ? null : palette;
+  }
+
+  /**
+   * Blend of two packed ARGB colors (two channels per multiplication)
+   *
+   * @param from first color
+   * @param to second color
+   * @param weight second color weight (0 up to 256)
+   * @return packed ARGB color
+   */
+  static private int blendRGB(final int from, final int to, final int weight) {
+    final int inverse = 256 - weight;
+    final int rb = ((from & 0xff00ff) * inverse + (to & 0xff00ff) * weight) >>> 8;
+    final int ag = ((from >>> 8) & 0xff00ff) * inverse + ((to >>> 8) & 0xff00ff) * weight;
+    return (ag & 0xff00ff00) | (rb & 0xff00ff);
+  }
+
+  /**
+   * First item whose color or mark differs from another gradient (0 if the
+   * number of itens differs)
+   *
+   * @param other other gradient
+   * @return index (or {@link #getNumItems()} if nothing differs)
+   */
+  final int getFirstChange(final JDegradeeGradient other) {
+    if (other.numItems != numItems) {
+      return 0;
+    }
+    int first = 0;
+    while (first < numItems && palette[first] == other.palette[first]) {
+      first++;
+    }
+    final int numMarks = markIndexes.length;
+    final int otherMarks = other.markIndexes.length;
+    int a = 0;
+    int b = 0;
+    while (a < numMarks || b < otherMarks) {
+      final int ia = a < numMarks ? markIndexes[a] : numItems;
+      final int ib = b < otherMarks ? other.markIndexes[b] : numItems;
+      if (ia >= first && ib >= first) {
+        break;
+      }
+      if (ia != ib || !markColors[a].equals(other.markColors[b])) {
+        first = Math.min(first, Math.min(ia, ib));
+        break;
+      }
+      a++;
+      b++;
+    }
+    return first;
+  }
+
+  /**
+   * Last item whose color or mark differs from another gradient (the last
+   * item if the number of itens differs)
+   *
+   * @param other other gradient
+   * @return index (or -1 if nothing differs)
+   */
+  final int getLastChange(final JDegradeeGradient other) {
+    if (other.numItems != numItems) {
+      return numItems - 1;
+    }
+    int last = numItems - 1;
+    while (last >= 0 && palette[last] == other.palette[last]) {
+      last--;
+    }
+    int a = markIndexes.length - 1;
+    int b = other.markIndexes.length - 1;
+    while (a >= 0 || b >= 0) {
+      final int ia = a >= 0 ? markIndexes[a] : -1;
+      final int ib = b >= 0 ? other.markIndexes[b] : -1;
+      if (ia <= last && ib <= last) {
+        break;
+      }
+      if (ia != ib || !markColors[a].equals(other.markColors[b])) {
+        last = Math.max(last, Math.max(ia, ib));
+        break;
+      }
+      a--;
+      b--;
+    }
+    return last;
+  }
+
+  /**
+   * Palette partial update: only the segments (between marks) that contain
+   * the given itens are recomputed (construction only).
+   *
+   * @param first first changed index
+   * @param last last changed index
+   */
+  private void updatePalette(final int first, final int last) {
+    if (first > last) {
+      return;
+    }
+    final int found = findMark(first);
+    int pos = found >= 0 ? found : -found - 1;
+    while (true) {
+      fillSegment(palette, pos);
+      if (pos >= markIndexes.length || markIndexes[pos] > last) {
+        break;
+      }
+      palette[markIndexes[pos]] = markColors[pos].getRGB();
+      pos++;
+    }
+  }
+
+  /**
+   * Palette building: a single pass through all itens, segment by segment
+   * (between consecutive marks).
+   *
+   * @return packed ARGB colors of all itens
+   */
+  private int[] buildPalette() {
+    final int[] array = new int[numItems];
+    final int numMarks = markIndexes.length;
+    for (int pos = 0; pos < numMarks; pos++) {
+      array[markIndexes[pos]] = markColors[pos].getRGB();
+    }
+    for (int pos = 0; pos <= numMarks; pos++) {
+      fillSegment(array, pos);
+    }
+    return array;
+  }
+
+  /**
+   * Calculates the colors of the itens that precede a mark (after the previous
+   * one), based on the surrounding marks or the primary and secondary colors.
+   *
+   * @param array palette to be filled
+   * @param pos mark position (number of marks for the last segment)
+   */
+  private void fillSegment(final int[] array, final int pos) {
+    final int numMarks = markIndexes.length;
+    final int prevIdx = pos > 0 ? markIndexes[pos - 1] : -1;
+    final int nextIdx = pos < numMarks ? markIndexes[pos] : -1;
+    final Color prevColor = prevIdx >= 0 ? markColors[pos - 1] : priColor;
+    final Color nextColor = nextIdx >= 0 ? markColors[pos] : secColor;
+    final int first = prevIdx + 1;
+    final int last = nextIdx >= 0 ? nextIdx - 1 : numItems - 1;
+    final int start = prevIdx >= 0 ? prevIdx : 0;
+    final int end = nextIdx >= 0 ? nextIdx : numItems - 1;
+    space.interpolate(array, first, last, start, end, prevColor.getRGB(), nextColor.getRGB());
+  }
+
+  /**
+   * Gradient building from its parts (e.g. decoded from a file), with
+   * validation.
+   *
+   * @param numItems number of itens
+   * @param priColor primary color
+   * @param secColor secondary color
+   * @param space interpolation color space
+   * @param markIndexes markers' indexes (strictly increasing; not copied)
+   * @param markColors markers' colors (not copied)
+   * @return gradient
+   */
+  static JDegradeeGradient create(final int numItems, final Color priColor, final Color secColor,
+    final JDegradeeColorSpace space, final int[] markIndexes, final Color[] markColors) {
+    checkNumItems(numItems);
+    if (space == null) {
+      throw new RuntimeException("Null color space");
+    }
+    if (markIndexes.length != markColors.length) {
+      throw new RuntimeException("Marks length mismatch");
+    }
+    for (int pos = 0; pos < markIndexes.length; pos++) {
+      final int index = markIndexes[pos];
+      if (index < 0 || index >= numItems || (pos > 0 && index <= markIndexes[pos - 1])) {
+        throw new RuntimeException("Invalid mark index (" + index + ")");
+      }
+      checkColor(markColors[pos]);
+    }
+    return new JDegradeeGradient(numItems, checkColor(priColor), checkColor(secColor), space, markIndexes,
+      markColors, null, 0, numItems - 1);
+  }
+
+  /**
+   * Number of itens validation
+   *
+   * @param numItems number of itens
+   * @return the given number of itens
+   */
+  static private int checkNumItems(final int numItems) {
+    if (numItems < JDegradee.MIN_ITENS || numItems > JDegradee.MAX_ITENS) {
+      final String err = "Value out of range (" + JDegradee.MIN_ITENS + "," + JDegradee.MAX_ITENS + ")";
+      throw new RuntimeException(err);
+    }
+    return numItems;
+  }
+
+  /**
+   * Array interval validation
+   *
+   * @param arrayLength array length
+   * @param offset first position
+   * @param length interval length
+   */
+  static private void checkRange(final int arrayLength, final int offset, final int length) {
+    if (offset < 0 || length < 0 || offset > arrayLength - length) {
+      final String err = "Array interval out of range (" + offset + "," + length + ")";
+      throw new RuntimeException(err);
+    }
+  }
+
+  /**
+   * Color validation
+   *
+   * @param color color
+   * @return the given color
+   */
+  static private Color checkColor(final Color color) {
+    if (color == null) {
+      throw new RuntimeException("Null color");
+    }
+    return color;
+  }
+
+  /**
+   * Mutable gradient definition, for several changes (number of itens,
+   * colors and marks) followed by a single palette building. Editors are
+   * not thread-safe.
+   *
+   * @see JDegradeeGradient#edit()
+   */
+  final public static class Editor {
+
+    /**
+     * Number of itens
+     */
+    private int numItems;
+
+    /**
+     * Primary color
+     */
+    private Color priColor;
+
+    /**
+     * Secondary color
+     */
+    private Color secColor;
+
+    /**
+     * Interpolation color space
+     */
+    private JDegradeeColorSpace space;
+
+    /**
+     * Number of marks
+     */
+    private int numMarks;
+
+    /**
+     * Markers' indexes (sorted; only the first {@link #numMarks} are valid)
+     */
+    private int[] markIndexes;
+
+    /**
+     * Markers' colors (parallel to {@link #markIndexes})
+     */
+    private Color[] markColors;
+
+    /**
+     * Number of itens
+     *
+     * @return number of itens
+     */
+    final public int getNumItems() {
+      return numItems;
+    }
+
+    /**
+     * Primary color query
+     *
+     * @return color
+     */
+    final public Color getPrimaryColor() {
+      return priColor;
+    }
+
+    /**
+     * Secondary color query
+     *
+     * @return color
+     */
+    final public Color getSecondaryColor() {
+      return secColor;
+    }
+
+    /**
+     * Interpolation color space query
+     *
+     * @return color space
+     */
+    final public JDegradeeColorSpace getColorSpace() {
+      return space;
+    }
+
+    /**
+     * Number of marks
+     *
+     * @return number of marks
+     */
+    final public int getNumMarks() {
+      return numMarks;
+    }
+
+    /**
+     * Mark color query
+     *
+     * @param index index
+     * @return color (or {@code null} if there is no mark)
+     */
+    final public Color getMarkColor(final int index) {
+      final int pos = Arrays.binarySearch(markIndexes, 0, numMarks, index);
+      return pos >= 0 ? markColors[pos] : null;
+    }
+
+    /**
+     * Sets the new number of itens: marks are moved to the proportional
+     * position in the new number of itens.
+     *
+     * @param newNumItems number of itens
+     * @return this editor
+     */
+    final public Editor setNumItems(final int newNumItems) {
+      checkNumItems(newNumItems);
+      int count = 0;
+      for (int pos = 0; pos < numMarks; pos++) {
+        final int i = markIndexes[pos];
+        final int j = Math.min((int) Math.round((double) i * newNumItems / numItems), newNumItems - 1);
+        if (count > 0 && markIndexes[count - 1] == j) {
+          count--;
+        }
+        markIndexes[count] = j;
+        markColors[count] = markColors[pos];
+        count++;
+      }
+      Arrays.fill(markColors, count, numMarks, null);
+      numMarks = count;
+      numItems = newNumItems;
+      return this;
+    }
+
+    /**
+     * Primary color adjustment
+     *
+     * @param color color
+     * @return this editor
+     */
+    final public Editor setPrimaryColor(final Color color) {
+      priColor = checkColor(color);
+      return this;
+    }
+
+    /**
+     * Secondary color adjustment
+     *
+     * @param color color
+     * @return this editor
+     */
+    final public Editor setSecondaryColor(final Color color) {
+      secColor = checkColor(color);
+      return this;
+    }
+
+    /**
+     * Interpolation color space adjustment
+     *
+     * @param colorSpace color space
+     * @return this editor
+     */
+    final public Editor setColorSpace(final JDegradeeColorSpace colorSpace) {
+      if (colorSpace == null) {
+        throw new RuntimeException("Null color space");
+      }
+      space = colorSpace;
+      return this;
+    }
+
+    /**
+     * Mark color adjustment (based on an index)
+     *
+     * @param index index
+     * @param color color (or {@code null} to remove the mark)
+     * @return this editor
+     */
+    final public Editor setMarkColorIndex(final int index, final Color color) {
+      if (index < 0 || index >= numItems) {
+        final String err = "Index out of range (0," + (numItems - 1) + ")";
+        throw new RuntimeException(err);
+      }
+      final int pos = Arrays.binarySearch(markIndexes, 0, numMarks, index);
+      if (pos >= 0) {
+        if (color == null) {
+          final int len = numMarks - pos - 1;
+          System.arraycopy(markIndexes, pos + 1, markIndexes, pos, len);
+          System.arraycopy(markColors, pos + 1, markColors, pos, len);
+          numMarks--;
+          markColors[numMarks] = null;
+        }
+        else {
+          markColors[pos] = color;
+        }
+      }
+      else if (color != null) {
+        final int ins = -pos - 1;
+        if (numMarks == markIndexes.length) {
+          final int capacity = Math.max(4, numMarks * 2);
+          markIndexes = Arrays.copyOf(markIndexes, capacity);
+          markColors = Arrays.copyOf(markColors, capacity);
+        }
+        final int len = numMarks - ins;
+        System.arraycopy(markIndexes, ins, markIndexes, ins + 1, len);
+        System.arraycopy(markColors, ins, markColors, ins + 1, len);
+        markIndexes[ins] = index;
+        markColors[ins] = color;
+        numMarks++;
+      }
+      return this;
+    }
+
+    /**
+     * Mark color adjustment (based on percentage)
+     *
+     * @param ratio ratio
+     * @param color color (or {@code null} to remove the mark)
+     * @return this editor
+     */
+    final public Editor setMarkColorRatio(final double ratio, final Color color) {
+      final int index = (int) Math.round((numItems - 1) * ratio);
+      return setMarkColorIndex(index, color);
+    }
+
+    /**
+     * Removal of all marks
+     *
+     * @return this editor
+     */
+    final public Editor clearMarks() {
+      Arrays.fill(markColors, 0, numMarks, null);
+      numMarks = 0;
+      return this;
+    }
+
+    /**
+     * Gradient building (the editor may still be used)
+     *
+     * @return gradient
+     */
+    final public JDegradeeGradient build() {
+      return new JDegradeeGradient(numItems, priColor, secColor, space, Arrays.copyOf(markIndexes, numMarks),
+        Arrays.copyOf(markColors, numMarks), null, 0, numItems - 1);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param gradient initial state
+     */
+    private Editor(final JDegradeeGradient gradient) {
+      this.numItems = gradient.numItems;
+      this.priColor = gradient.priColor;
+      this.secColor = gradient.secColor;
+      this.space = gradient.space;
+      this.numMarks = gradient.markIndexes.length;
+      this.markIndexes = gradient.markIndexes.clone();
+      this.markColors = gradient.markColors.clone();
+    }
+  }
+
+  /**
+   * Internal constructor
+   *
+   * @param numItems number of itens
+   * @param priColor primary color
+   * @param secColor secondary color
+   * @param space interpolation color space
+   * @param markIndexes markers' indexes (sorted, not copied)
+   * @param markColors markers' colors (not copied)
+   * @param basePalette palette of a gradient with the same number of itens, to
+   *        be copied (or {@code null} to build a new one)
+   * @param first first index that differs from the base palette
+   * @param last last index that differs from the base palette
+   */
+  private JDegradeeGradient(final int numItems, final Color priColor, final Color secColor,
+    final JDegradeeColorSpace space, final int[] markIndexes, final Color[] markColors, final int[] basePalette, final int first, final int last) {
+    this.numItems = numItems;
+    this.priColor = priColor;
+    this.secColor = secColor;
+    this.space = space;
+    this.markIndexes = markIndexes;
+    this.markColors = markColors;
+    this.blended = false;
+    if (basePalette == null) {
+      this.palette = buildPalette();
+    }
+    else {
+      this.palette = basePalette.clone();
+      updatePalette(first, last);
+    }
+  }
+
+  /**
+   * Constructor of a transition frame
+   *
+   * @param numItems number of itens
+   * @param priColor primary color
+   * @param secColor secondary color
+   * @param space interpolation color space
+   * @param markIndexes markers' indexes (sorted, not copied)
+   * @param markColors markers' colors (not copied)
+   * @param palette blended palette (not copied)
+   */
+  private JDegradeeGradient(final int numItems, final Color priColor, final Color secColor,
+    final JDegradeeColorSpace space, final int[] markIndexes, final Color[] markColors, final int[] palette) {
+    this.numItems = numItems;
+    this.priColor = priColor;
+    this.secColor = secColor;
+    this.space = space;
+    this.markIndexes = markIndexes;
+    this.markColors = markColors;
+    this.palette = palette;
+    this.blended = true;
+  }
+
+  /**
+   * Constructor (gradient without marks)
+   *
+   * @param numItems number of itens
+   * @param primary primary color
+   * @param secondary secondary color
+   */
+  public JDegradeeGradient(final int numItems, final Color primary, final Color secondary) {
+    this(checkNumItems(numItems), checkColor(primary), checkColor(secondary), JDegradeeColorSpace.SRGB, new int[0],
+      new Color[0], null, 0,
+      numItems - 1);
+  }
+}
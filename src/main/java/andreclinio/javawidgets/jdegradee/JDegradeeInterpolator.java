@@ -0,0 +1,45 @@
+package andreclinio.javawidgets.jdegradee;
+
+/**
+ * Palette interpolation entry point. This is the Java 8 version, which
+ * always uses the scalar kernel; the multi-release JAR carries a Java 17
+ * version that may use a vectorized kernel.
+ *
+ * @author André Clinio
+ * @see JDegradeeScalarInterpolator
+ */
+final class JDegradeeInterpolator {
+
+  /**
+   * Checks if the vectorized kernel is in use
+   *
+   * @return flag
+   */
+  static boolean isVectorized() {
+    return false;
+  }
+
+  /**
+   * Fills an interval with packed ARGB colors, from <code>fromRGB</code> at
+   * <code>start</code> up to <code>toRGB</code> at <code>end</code>.
+   *
+   * @param array palette to be filled
+   * @param first first index to be filled
+   * @param last last index to be filled
+   * @param start index of the <code>fromRGB</code> color
+   * @param end index of the <code>toRGB</code> color
+   * @param fromRGB first packed ARGB color
+   * @param toRGB last packed ARGB color
+   * @see JDegradeeScalarInterpolator#interpolate(int[], int, int, int, int, int, int)
+   */
+  static void interpolate(final int[] array, final int first, final int last, final int start, final int end,
+    final int fromRGB, final int toRGB) {
+    JDegradeeScalarInterpolator.interpolate(array, first, last, start, end, fromRGB, toRGB);
+  }
+
+  /**
+   * Constructor (no instances)
+   */
+  private JDegradeeInterpolator() {
+  }
+}
@@ -0,0 +1,448 @@
+package andreclinio.javawidgets.jdegradee;
+
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import andreclinio.javawidgets.jdegradee.adapters.JDegradeeAdapter;
+
+/**
+ * Paint and interaction metrics of all widgets, published as a platform
+ * MXBean (named {@link #OBJECT_NAME}) when enabled. Recording is disabled by
+ * default: each probe then costs a single flag test (no clock reading, no
+ * allocation). It may be enabled by {@link #setRecording(boolean)}, by a JMX
+ * client or by the <code>andreclinio.javawidgets.jdegradee.metrics</code>
+ * system property.
+ *
+ * @author André Clinio
+ */
+final public class JDegradeeMetrics implements JDegradeeMetricsMXBean {
+
+  /**
+   * MXBean name
+   */
+  final static public String OBJECT_NAME = "andreclinio.javawidgets.jdegradee:type=JDegradeeMetrics";
+
+  /**
+   * Number of paint time histogram buckets (powers of two, in microseconds)
+   */
+  final static private int NUM_BUCKETS = 16;
+
+  /**
+   * Singleton
+   */
+  final static private JDegradeeMetrics instance = new JDegradeeMetrics();
+
+  /**
+   * Recording flag
+   */
+  static private volatile boolean enabled = false;
+
+  /**
+   * Paint counter
+   */
+  final private LongAdder paints = new LongAdder();
+
+  /**
+   * Paint time
+   */
+  final private LongAdder paintNanos = new LongAdder();
+
+  /**
+   * Longest paint time
+   */
+  final private LongAccumulator maxPaintNanos = new LongAccumulator(Math::max, 0);
+
+  /**
+   * Paint time histogram
+   */
+  final private AtomicLongArray paintHistogram = new AtomicLongArray(NUM_BUCKETS);
+
+  /**
+   * Drawn itens
+   */
+  final private LongAdder items = new LongAdder();
+
+  /**
+   * Drawn marks
+   */
+  final private LongAdder marks = new LongAdder();
+
+  /**
+   * Back buffer copies
+   */
+  final private LongAdder bufferHits = new LongAdder();
+
+  /**
+   * Back buffer partial redraws
+   */
+  final private LongAdder bufferPartials = new LongAdder();
+
+  /**
+   * Back buffer full redraws
+   */
+  final private LongAdder bufferMisses = new LongAdder();
+
+  /**
+   * Color cache hits
+   */
+  final private LongAdder colorHits = new LongAdder();
+
+  /**
+   * Color cache misses
+   */
+  final private LongAdder colorMisses = new LongAdder();
+
+  /**
+   * Hit tests
+   */
+  final private LongAdder hitTests = new LongAdder();
+
+  /**
+   * Adapter calls (count and time) by class name
+   */
+  final private ConcurrentHashMap<String, LongAdder[]> dispatches = new ConcurrentHashMap<>();
+
+  static {
+    if (Boolean.getBoolean("andreclinio.javawidgets.jdegradee.metrics")) {
+      setRecording(true);
+    }
+  }
+
+  /**
+   * Singleton query
+   *
+   * @return metrics
+   */
+  static public JDegradeeMetrics getInstance() {
+    return instance;
+  }
+
+  /**
+   * Recording adjustment: the MXBean is registered in the platform server at
+   * the first activation.
+   *
+   * @param flag flag
+   */
+  static public void setRecording(final boolean flag) {
+    if (flag) {
+      register();
+    }
+    enabled = flag;
+  }
+
+  /**
+   * Recording flag query
+   *
+   * @return flag
+   */
+  static public boolean isRecording() {
+    return enabled;
+  }
+
+  /**
+   * MXBean registration in the platform server (once)
+   */
+  static synchronized public void register() {
+    final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+    try {
+      final ObjectName name = new ObjectName(OBJECT_NAME);
+      if (!server.isRegistered(name)) {
+        server.registerMBean(instance, name);
+      }
+    }
+    catch (JMException e) {
+      throw new RuntimeException("Metrics registration failure", e);
+    }
+  }
+
+  /**
+   * Measure start
+   *
+   * @return current time (nanoseconds), or 0 when not recording
+   */
+  static long start() {
+    return enabled ? System.nanoTime() : 0L;
+  }
+
+  /**
+   * Paint recording
+   *
+   * @param start paint start (from {@link #start()})
+   */
+  static void paintDone(final long start) {
+    if (start == 0L || !enabled) {
+      return;
+    }
+    final long nanos = System.nanoTime() - start;
+    instance.paints.increment();
+    instance.paintNanos.add(nanos);
+    instance.maxPaintNanos.accumulate(nanos);
+    final long micros = nanos / 1000L;
+    final int bucket = Math.min(NUM_BUCKETS - 1, 64 - Long.numberOfLeadingZeros(micros));
+    instance.paintHistogram.incrementAndGet(bucket);
+  }
+
+  /**
+   * Drawing recording (itens and marks of a drawn interval)
+   *
+   * @param numItems itens (or spans)
+   * @param numMarks marks
+   */
+  static void drawn(final int numItems, final int numMarks) {
+    if (!enabled) {
+      return;
+    }
+    instance.items.add(numItems);
+    instance.marks.add(numMarks);
+  }
+
+  /**
+   * Back buffer use recording
+   *
+   * @param redrawn 0 for a plain copy, 1 for a partial redraw and 2 for a full
+   *        redraw
+   */
+  static void buffer(final int redrawn) {
+    if (!enabled) {
+      return;
+    }
+    if (redrawn == 0) {
+      instance.bufferHits.increment();
+    }
+    else if (redrawn == 1) {
+      instance.bufferPartials.increment();
+    }
+    else {
+      instance.bufferMisses.increment();
+    }
+  }
+
+  /**
+   * Color cache use recording
+   *
+   * @param hit indicative of a cached color
+   */
+  static void colorCache(final boolean hit) {
+    if (!enabled) {
+      return;
+    }
+    if (hit) {
+      instance.colorHits.increment();
+    }
+    else {
+      instance.colorMisses.increment();
+    }
+  }
+
+  /**
+   * Hit test recording
+   */
+  static void hitTest() {
+    if (enabled) {
+      instance.hitTests.increment();
+    }
+  }
+
+  /**
+   * Adapter call recording
+   *
+   * @param adapter adapter
+   * @param start call start (from {@link #start()})
+   */
+  static void dispatched(final JDegradeeAdapter adapter, final long start) {
+    if (start == 0L || !enabled) {
+      return;
+    }
+    final long nanos = System.nanoTime() - start;
+    final LongAdder[] counters = instance.dispatches.computeIfAbsent(adapter.getClass().getName(),
+      k -> new LongAdder[] { new LongAdder(), new LongAdder() });
+    counters[0].increment();
+    counters[1].add(nanos);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void setEnabled(final boolean flag) {
+    enabled = flag;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public long getPaintCount() {
+    return paints.sum();
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public long getPaintNanos() {
+    return paintNanos.sum();
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public long getMaxPaintNanos() {
+    return maxPaintNanos.get();
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public long[] getPaintHistogram() {
+    final long[] counts = new long[NUM_BUCKETS];
+    for (int i = 0; i < NUM_BUCKETS; i++) {
+      counts[i] = paintHistogram.get(i);
+    }
+    return counts;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public long[] getPaintHistogramBounds() {
+    final long[] bounds = new long[NUM_BUCKETS];
+    for (int i = 0; i < NUM_BUCKETS - 1; i++) {
+      bounds[i] = 1L << i;
+    }
+    bounds[NUM_BUCKETS - 1] = Long.MAX_VALUE;
+    return bounds;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public long getItemsDrawn() {
+    return items.sum();
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public long getMarksDrawn() {
+    return marks.sum();
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public long getBufferHits() {
+    return bufferHits.sum();
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public long getBufferPartialRedraws() {
+    return bufferPartials.sum();
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public long getBufferMisses() {
+    return bufferMisses.sum();
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public long getColorCacheHits() {
+    return colorHits.sum();
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public long getColorCacheMisses() {
+    return colorMisses.sum();
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public long getHitTestCount() {
+    return hitTests.sum();
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public Map<String, Long> getAdapterDispatchCounts() {
+    final Map<String, Long> map = new TreeMap<>();
+    dispatches.forEach((name, counters) -> map.put(name, counters[0].sum()));
+    return map;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public Map<String, Long> getAdapterDispatchNanos() {
+    final Map<String, Long> map = new TreeMap<>();
+    dispatches.forEach((name, counters) -> map.put(name, counters[1].sum()));
+    return map;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void reset() {
+    paints.reset();
+    paintNanos.reset();
+    maxPaintNanos.reset();
+    for (int i = 0; i < NUM_BUCKETS; i++) {
+      paintHistogram.set(i, 0L);
+    }
+    items.reset();
+    marks.reset();
+    bufferHits.reset();
+    bufferPartials.reset();
+    bufferMisses.reset();
+    colorHits.reset();
+    colorMisses.reset();
+    hitTests.reset();
+    dispatches.clear();
+  }
+
+  /**
+   * Constructor (singleton)
+   */
+  private JDegradeeMetrics() {
+  }
+}
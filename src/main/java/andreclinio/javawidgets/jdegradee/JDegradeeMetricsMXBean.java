@@ -0,0 +1,138 @@
+package andreclinio.javawidgets.jdegradee;
+
+import java.util.Map;
+
+/**
+ * Management interface of the widgets metrics (all widgets together), as
+ * seen by JMX clients.
+ *
+ * @author André Clinio
+ * @see JDegradeeMetrics
+ */
+public interface JDegradeeMetricsMXBean {
+
+  /**
+   * Recording flag query
+   *
+   * @return flag
+   */
+  boolean isEnabled();
+
+  /**
+   * Recording adjustment (nothing is measured while disabled)
+   *
+   * @param flag flag
+   */
+  void setEnabled(boolean flag);
+
+  /**
+   * Number of widget paints
+   *
+   * @return number of paints
+   */
+  long getPaintCount();
+
+  /**
+   * Total paint time
+   *
+   * @return time (nanoseconds)
+   */
+  long getPaintNanos();
+
+  /**
+   * Longest paint time
+   *
+   * @return time (nanoseconds)
+   */
+  long getMaxPaintNanos();
+
+  /**
+   * Paint time histogram: number of paints per time bucket
+   *
+   * @return counts (parallel to {@link #getPaintHistogramBounds()})
+   */
+  long[] getPaintHistogram();
+
+  /**
+   * Upper bounds of the paint time histogram buckets (the last one is
+   * unbounded)
+   *
+   * @return bounds (microseconds)
+   */
+  long[] getPaintHistogramBounds();
+
+  /**
+   * Number of itens (or pixel spans, in continuous drawing) drawn
+   *
+   * @return number of itens
+   */
+  long getItemsDrawn();
+
+  /**
+   * Number of marks drawn
+   *
+   * @return number of marks
+   */
+  long getMarksDrawn();
+
+  /**
+   * Number of buffered paints that just copied the back buffer
+   *
+   * @return number of paints
+   */
+  long getBufferHits();
+
+  /**
+   * Number of buffered paints that redrew only changed itens
+   *
+   * @return number of paints
+   */
+  long getBufferPartialRedraws();
+
+  /**
+   * Number of buffered paints that redrew the whole back buffer
+   *
+   * @return number of paints
+   */
+  long getBufferMisses();
+
+  /**
+   * Number of item colors found in the widgets color cache
+   *
+   * @return number of colors
+   */
+  long getColorCacheHits();
+
+  /**
+   * Number of item colors created (not in the widgets color cache)
+   *
+   * @return number of colors
+   */
+  long getColorCacheMisses();
+
+  /**
+   * Number of hit tests (item and mark searches by coordinates)
+   *
+   * @return number of hit tests
+   */
+  long getHitTestCount();
+
+  /**
+   * Number of adapter calls, by adapter class
+   *
+   * @return counts
+   */
+  Map<String, Long> getAdapterDispatchCounts();
+
+  /**
+   * Total adapter call time, by adapter class
+   *
+   * @return times (nanoseconds)
+   */
+  Map<String, Long> getAdapterDispatchNanos();
+
+  /**
+   * Counters reset
+   */
+  void reset();
+}
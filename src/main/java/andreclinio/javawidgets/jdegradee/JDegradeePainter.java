@@ -0,0 +1,527 @@
+package andreclinio.javawidgets.jdegradee;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.Rectangle2D;
+import java.util.List;
+
+import andreclinio.javawidgets.jdegradee.JDegradee.Orientation;
+import andreclinio.javawidgets.jdegradee.renderers.JDegradeeRenderer;
+
+/**
+ * Drawing of a gradient strip (itens, grid, item renderers and marks) over a
+ * rectangular area, shared by the {@link JDegradee} widget and the headless
+ * {@link JDegradeeExporter}. Instances keep scratch objects and must be used
+ * by one thread at a time.
+ *
+ * @author André Clinio
+ */
+final class JDegradeePainter {
+
+  /**
+   * Owner widget (or {@code null} for headless drawing)
+   */
+  private JDegradee jDegradee;
+
+  /**
+   * Gradient
+   */
+  private JDegradeeGradient gradient;
+
+  /**
+   * Orientation
+   */
+  private Orientation orientation = Orientation.HORIZONTAL;
+
+  /**
+   * Drawing area width
+   */
+  private int width;
+
+  /**
+   * Drawing area height
+   */
+  private int height;
+
+  /**
+   * Grid drawing flag
+   */
+  private boolean hasGrid;
+
+  /**
+   * Line color
+   */
+  private Color lineColor = Color.black;
+
+  /**
+   * Continuous drawing flag
+   */
+  private boolean continuous;
+
+  /**
+   * Item renderers
+   */
+  private List<JDegradeeRenderer> renderers;
+
+  /**
+   * Color objects of the palette (lazy cache, checked against the palette)
+   */
+  private Color[] paletteColors;
+
+  /**
+   * Scratch item area (drawing reuse, avoiding allocations)
+   */
+  final private Rectangle2D itemRect = new Rectangle2D.Double();
+
+  /**
+   * Scratch item pixels (drawing reuse, avoiding allocations)
+   */
+  final private Rectangle itemPixels = new Rectangle();
+
+  /**
+   * Scratch mark area (drawing reuse, avoiding allocations)
+   */
+  final private Rectangle2D markRect = new Rectangle2D.Double();
+
+  /**
+   * Drawing setup
+   *
+   * @param jDegradee owner widget (or {@code null} for headless drawing)
+   * @param gradient gradient
+   * @param orientation orientation
+   * @param width drawing area width
+   * @param height drawing area height
+   */
+  void setup(final JDegradee jDegradee, final JDegradeeGradient gradient, final Orientation orientation,
+    final int width, final int height) {
+    this.jDegradee = jDegradee;
+    this.gradient = gradient;
+    this.orientation = orientation;
+    this.width = width;
+    this.height = height;
+  }
+
+  /**
+   * Drawing style setup
+   *
+   * @param hasGrid grid drawing flag
+   * @param lineColor line color
+   * @param continuous continuous drawing flag
+   * @param renderers item renderers (not copied)
+   */
+  void setStyle(final boolean hasGrid, final Color lineColor, final boolean continuous,
+    final List<JDegradeeRenderer> renderers) {
+    this.hasGrid = hasGrid;
+    this.lineColor = lineColor;
+    this.continuous = continuous;
+    this.renderers = renderers;
+  }
+
+  /**
+   * Color object of an item, taken from a cache that is filled on demand (an
+   * entry is replaced only when the palette color changes). Cache use is
+   * recorded only for widgets: headless painters are short-lived.
+   *
+   * @param index index
+   * @return color
+   */
+  Color getItemColor(final int index) {
+    final int numItems = gradient.getNumItems();
+    final int rgb = gradient.getColorRGB(index);
+    if (paletteColors == null || paletteColors.length != numItems) {
+      paletteColors = new Color[numItems];
+    }
+    final Color cached = paletteColors[index];
+    final boolean hit = cached != null && cached.getRGB() == rgb;
+    if (jDegradee != null) {
+      JDegradeeMetrics.colorCache(hit);
+    }
+    if (hit) {
+      return cached;
+    }
+    final Color color = new Color(rgb, true);
+    paletteColors[index] = color;
+    return color;
+  }
+
+  /**
+   * Calculates the rectangular area of an item
+   *
+   * @param index index
+   * @param rect rectangle to be filled
+   * @return the given rectangle
+   */
+  Rectangle2D getBounds(final int index, final Rectangle2D rect) {
+    final int numItems = gradient.getNumItems();
+    switch (orientation) {
+      case HORIZONTAL:
+        final double w = (double) width / numItems;
+        rect.setFrame(w * index, 0.0, w, height);
+
+        break;
+      case VERTICAL:
+        final double h = (double) height / numItems;
+        rect.setFrame(0.0, h * index, width, h);
+
+        break;
+    }
+    return rect;
+  }
+
+  /**
+   * Calculates the pixels filled by an item: its edges are the pixels where
+   * the fractional item bounds start (rounded down), so consecutive itens
+   * share no pixel and leave no gap, whatever the drawing translation.
+   *
+   * @param index index
+   * @param rect rectangle to be filled
+   * @return the given rectangle
+   */
+  Rectangle getPixelBounds(final int index, final Rectangle rect) {
+    final int numItems = gradient.getNumItems();
+    final int length = getPixelLength();
+    final int lo = (int) ((long) index * length / numItems);
+    final int hi = (int) ((long) (index + 1) * length / numItems);
+    if (orientation == Orientation.HORIZONTAL) {
+      rect.setBounds(lo, 0, hi - lo, height);
+    }
+    else {
+      rect.setBounds(0, lo, width, hi - lo);
+    }
+    return rect;
+  }
+
+  /**
+   * Calculates the region that defines a mark
+   *
+   * @param index mark index
+   * @param rect rectangle to be filled
+   * @return the given rectangle
+   */
+  Rectangle2D getMarkBounds(final int index, final Rectangle2D rect) {
+    final Rectangle2D bndRect = getBounds(index, rect);
+    final double cx = bndRect.getCenterX();
+    final double cy = bndRect.getCenterY();
+    final double sz2 = JDegradee.MARK_SIZE / 2.0;
+    rect.setFrame(cx - sz2, cy - sz2, JDegradee.MARK_SIZE, JDegradee.MARK_SIZE);
+    return rect;
+  }
+
+  /**
+   * Region (in pixels) covered by an item interval, including the marks that
+   * may be drawn over them.
+   *
+   * @param first first index
+   * @param last last index
+   * @param region rectangle to be filled
+   * @return the given rectangle
+   */
+  Rectangle getItemsRegion(final int first, final int last, final Rectangle region) {
+    final int length = getPixelLength();
+    final double itemLength = (double) length / gradient.getNumItems();
+    final double sz2 = JDegradee.MARK_SIZE / 2.0;
+    final int lo = Math.max(0, (int) Math.floor(first * itemLength - sz2));
+    final int hi = Math.min(length, (int) Math.ceil((last + 1) * itemLength + sz2));
+    if (orientation == Orientation.HORIZONTAL) {
+      region.setBounds(lo, 0, hi - lo, height);
+    }
+    else {
+      region.setBounds(0, lo, width, hi - lo);
+    }
+    return region;
+  }
+
+  /**
+   * Search for index belonging to a coordinate (plain arithmetic, based on
+   * the orientation and the area size).
+   *
+   * @param x  X value
+   * @param y  Y value
+   * @return index (or -1 if it does not exist)
+   */
+  int indexAt(final double x, final double y) {
+    final int numItems = gradient.getNumItems();
+    final boolean horizontal = orientation == Orientation.HORIZONTAL;
+    final double pos = horizontal ? x : y;
+    final double across = horizontal ? y : x;
+    if (pos < 0 || across < 0 || across >= getPixelThickness()) {
+      return -1;
+    }
+    final double itemLength = (double) getPixelLength() / numItems;
+    final int guess = (int) (pos / itemLength);
+    // Rounding may put the guess one item off from getBounds(index)
+    final int first = Math.max(0, guess - 1);
+    final int last = Math.min(numItems - 1, guess + 1);
+    for (int index = first; index <= last; index++) {
+      final double start = itemLength * index;
+      if (pos >= start && pos < start + itemLength) {
+        return index;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Search for the mark drawn over a coordinate. Only the marks of the itens
+   * near the coordinate are checked (binary search), with no allocation.
+   *
+   * @param x X value
+   * @param y Y value
+   * @return mark index (or -1 if there is no mark)
+   */
+  int markAt(final double x, final double y) {
+    final int numMarks = gradient.getNumMarks();
+    final boolean horizontal = orientation == Orientation.HORIZONTAL;
+    final double pos = horizontal ? x : y;
+    final double across = horizontal ? y : x;
+    final double sz2 = JDegradee.MARK_SIZE / 2.0;
+    final double center = getPixelThickness() / 2.0;
+    if (numMarks == 0 || across < center - sz2 || across >= center - sz2 + JDegradee.MARK_SIZE) {
+      return -1;
+    }
+    final double itemLength = (double) getPixelLength() / gradient.getNumItems();
+    final int first = (int) Math.floor((pos - sz2) / itemLength - 0.5) - 1;
+    final int last = (int) Math.ceil((pos + sz2) / itemLength - 0.5) + 1;
+    final int found = gradient.findMark(Math.max(first, 0));
+    for (int n = found >= 0 ? found : -found - 1; n < numMarks; n++) {
+      final int index = gradient.getNthMarkIndex(n);
+      if (index > last) {
+        break;
+      }
+      final double start = itemLength * index + itemLength / 2.0 - sz2;
+      if (pos >= start && pos < start + JDegradee.MARK_SIZE) {
+        return index;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Full drawing method
+   *
+   * @param g2d Java graphical context
+   */
+  void drawPanel(final Graphics2D g2d) {
+    drawItems(g2d, 0, getPixelLength());
+  }
+
+  /**
+   * Clipped drawing method: only the itens (and marks) that intersect the
+   * clip along the orientation are drawn. When there are item renderers, the
+   * itens within the renderer overflow distance are also drawn, since their
+   * output may reach the clip.
+   *
+   * @param g2d Java graphical context
+   * @param clip clip bounds (<code>null</code> for the full area)
+   * @see JDegradeeExporter#DEFAULT_OVERFLOW
+   */
+  void drawPanel(final Graphics2D g2d, final Rectangle clip) {
+    if (clip == null) {
+      drawPanel(g2d);
+      return;
+    }
+    final int start = orientation == Orientation.HORIZONTAL ? clip.x : clip.y;
+    final int size = orientation == Orientation.HORIZONTAL ? clip.width : clip.height;
+    final int margin = renderers.isEmpty() ? 0 : JDegradeeExporter.DEFAULT_OVERFLOW;
+    final int lo = Math.max(0, start - margin);
+    final int hi = Math.min(getPixelLength(), start + size + margin);
+    drawItems(g2d, lo, hi);
+  }
+
+  /**
+   * Internal drawing method (loop) for a pixel interval along the orientation
+   *
+   * @param g graphical Java context
+   * @param lo first pixel
+   * @param hi pixel after the last one
+   */
+  void drawItems(final Graphics2D g, final int lo, final int hi) {
+    final int length = getPixelLength();
+    if (length <= 0 || lo >= hi) {
+      return;
+    }
+    final int numDrawn;
+    if (isContinuousDrawing(g)) {
+      numDrawn = drawSpans(g, lo, hi);
+    }
+    else {
+      // The item starting inside the last pixel may cover its center
+      final int first = getItemAt(lo, length);
+      final int last = getItemAt(hi, length);
+      for (int i = first; i <= last; i++) {
+        drawItem(g, i);
+      }
+      numDrawn = last - first + 1;
+    }
+    final int numMarks = gradient.getNumMarks();
+    final double sz2 = JDegradee.MARK_SIZE / 2.0;
+    final int first = getItemAt(lo - sz2, length);
+    final int last = getItemAt(hi + sz2, length);
+    final int found = gradient.findMark(first);
+    final int firstMark = found >= 0 ? found : -found - 1;
+    int n = firstMark;
+    while (n < numMarks) {
+      final int index = gradient.getNthMarkIndex(n);
+      if (index > last) {
+        break;
+      }
+      drawMark(g, index);
+      n++;
+    }
+    if (jDegradee != null) {
+      JDegradeeMetrics.drawn(numDrawn, n - firstMark);
+    }
+  }
+
+  /**
+   * Index of the item at a coordinate along the orientation (clamped to the
+   * valid itens).
+   *
+   * @param pos coordinate (in pixels)
+   * @param length length of the area (in pixels)
+   * @return index
+   */
+  private int getItemAt(final double pos, final int length) {
+    final int numItems = gradient.getNumItems();
+    final int index = (int) Math.floor(pos * numItems / length);
+    return Math.max(0, Math.min(index, numItems - 1));
+  }
+
+  /**
+   * Checks if the itens must be drawn as pixel spans (with no grid or item
+   * renderers): either the continuous mode is active or there are more itens
+   * than device pixels to draw them (so scaled contexts, as in HiDPI
+   * screens, are measured after their transform).
+   *
+   * @param g graphical Java context
+   * @return flag
+   */
+  private boolean isContinuousDrawing(final Graphics2D g) {
+    if (continuous) {
+      return true;
+    }
+    final AffineTransform transform = g.getTransform();
+    final double scale;
+    if (orientation == Orientation.HORIZONTAL) {
+      scale = Math.hypot(transform.getScaleX(), transform.getShearY());
+    }
+    else {
+      scale = Math.hypot(transform.getShearX(), transform.getScaleY());
+    }
+    return gradient.getNumItems() > getPixelLength() * scale;
+  }
+
+  /**
+   * Length (in pixels) of the area along its orientation.
+   *
+   * @return length
+   */
+  int getPixelLength() {
+    return orientation == Orientation.HORIZONTAL ? width : height;
+  }
+
+  /**
+   * Thickness (in pixels) of the area, across its orientation.
+   *
+   * @return thickness
+   */
+  private int getPixelThickness() {
+    return orientation == Orientation.HORIZONTAL ? height : width;
+  }
+
+  /**
+   * Internal continuous drawing method: each pixel column (or row) gets the
+   * color of the item under its center and consecutive pixels with the same
+   * color are filled as a single span. The drawing cost is bounded by the
+   * area size, not by the number of itens.
+   *
+   * @param g2d Java graphical context
+   * @param lo first pixel
+   * @param hi pixel after the last one
+   * @return number of spans
+   */
+  private int drawSpans(final Graphics2D g2d, final int lo, final int hi) {
+    final int length = getPixelLength();
+    final int thickness = getPixelThickness();
+    final int[] colors = gradient.getPalette();
+    final double itemsPerPixel = (double) gradient.getNumItems() / length;
+    int spanStart = lo;
+    int numSpans = 0;
+    while (spanStart < hi) {
+      final int spanItem = getPixelItem(spanStart, itemsPerPixel);
+      final int spanColor = colors[spanItem];
+      int spanEnd = spanStart + 1;
+      while (spanEnd < hi && colors[getPixelItem(spanEnd, itemsPerPixel)] == spanColor) {
+        spanEnd++;
+      }
+      g2d.setColor(getItemColor(spanItem));
+      if (orientation == Orientation.HORIZONTAL) {
+        g2d.fillRect(spanStart, 0, spanEnd - spanStart, thickness);
+      }
+      else {
+        g2d.fillRect(0, spanStart, thickness, spanEnd - spanStart);
+      }
+      spanStart = spanEnd;
+      numSpans++;
+    }
+    return numSpans;
+  }
+
+  /**
+   * Index of the item under the center of a pixel (continuous drawing)
+   *
+   * @param pixel pixel coordinate (along the orientation)
+   * @param itemsPerPixel number of itens per pixel
+   * @return index
+   */
+  private int getPixelItem(final int pixel, final double itemsPerPixel) {
+    return Math.min((int) ((pixel + 0.5) * itemsPerPixel), gradient.getNumItems() - 1);
+  }
+
+  /**
+   * Internal item draw mthod
+   *
+   * @param g2d Java graphical context
+   * @param index index
+   */
+  private void drawItem(final Graphics2D g2d, final int index) {
+    final Rectangle pixels = getPixelBounds(index, itemPixels);
+    final Color color = getItemColor(index);
+
+    g2d.setColor(color);
+    g2d.fillRect(pixels.x, pixels.y, pixels.width, pixels.height);
+    if (hasGrid) {
+      g2d.setColor(lineColor);
+      g2d.drawRect(pixels.x, pixels.y, pixels.width, pixels.height);
+    }
+
+    final Rectangle2D rect = getBounds(index, itemRect);
+
+    final int numRenderers = renderers.size();
+    for (int i = 0; i < numRenderers; i++) {
+      final JDegradeeRenderer renderer = renderers.get(i);
+      if (jDegradee != null) {
+        renderer.render(jDegradee, g2d, rect, index);
+      }
+      else {
+        renderer.render(gradient, orientation, g2d, rect, index);
+      }
+    }
+  }
+
+  /**
+   * Mark internal drawing method
+   *
+   * @param g2d Java graphical context
+   * @param index mark index
+   */
+  private void drawMark(final Graphics2D g2d, final int index) {
+    final Rectangle2D rect = getMarkBounds(index, markRect);
+    g2d.setColor(gradient.getMarkColor(index));
+    g2d.fill(rect);
+    g2d.setColor(lineColor);
+    g2d.draw(rect);
+  }
+}
@@ -0,0 +1,241 @@
+package andreclinio.javawidgets.jdegradee;
+
+import java.awt.Color;
+import java.util.ArrayList;
+import java.util.List;
+
+import andreclinio.javawidgets.jdegradee.JDegradee.Orientation;
+
+/**
+ * Persistable widget configuration: a named gradient (itens, colors, color
+ * space and marks) with an orientation. Presets are immutable.
+ * <p>
+ * The text form is a single line, similar to a properties entry:
+ *
+ * <pre>
+ * name=64 HORIZONTAL SRGB #ffff0000 #ff0000ff 16:#ffffff00 40:#8000ff00
+ * </pre>
+ *
+ * (number of itens, orientation, color space, primary and secondary colors
+ * and then the marks, as index and packed ARGB color).
+ *
+ * @author André Clinio
+ * @see JDegradeePresetWriter
+ * @see JDegradeePresetReader
+ * @see JDegradeePresetCatalog
+ */
+public final class JDegradeePreset {
+
+  /**
+   * Name
+   */
+  final private String name;
+
+  /**
+   * Gradient
+   */
+  final private JDegradeeGradient gradient;
+
+  /**
+   * Orientation
+   */
+  final private Orientation orientation;
+
+  /**
+   * Name query
+   *
+   * @return name (may be empty)
+   */
+  final public String getName() {
+    return name;
+  }
+
+  /**
+   * Gradient query
+   *
+   * @return gradient
+   */
+  final public JDegradeeGradient getGradient() {
+    return gradient;
+  }
+
+  /**
+   * Orientation query
+   *
+   * @return orientation
+   */
+  final public Orientation getOrientation() {
+    return orientation;
+  }
+
+  /**
+   * Widget adjustment (orientation and gradient)
+   *
+   * @param jDegradee widget
+   */
+  final public void applyTo(final JDegradee jDegradee) {
+    jDegradee.setOrientation(orientation);
+    jDegradee.setGradient(gradient);
+  }
+
+  /**
+   * {@inheritDoc}
+   * <p>
+   * The name (as shown by lists).
+   */
+  @Override
+  final public String toString() {
+    return name;
+  }
+
+  /**
+   * Text form (a single line, with no line break)
+   *
+   * @return text
+   */
+  final public String toText() {
+    if (name.indexOf('=') >= 0 || name.indexOf('\n') >= 0 || name.indexOf('\r') >= 0) {
+      throw new RuntimeException("Invalid name for text form (" + name + ")");
+    }
+    final StringBuilder builder = new StringBuilder(name);
+    builder.append('=').append(gradient.getNumItems());
+    builder.append(' ').append(orientation.name());
+    builder.append(' ').append(gradient.getColorSpace().name());
+    appendColor(builder.append(' '), gradient.getPrimaryColor());
+    appendColor(builder.append(' '), gradient.getSecondaryColor());
+    final int numMarks = gradient.getNumMarks();
+    for (int n = 0; n < numMarks; n++) {
+      final int index = gradient.getNthMarkIndex(n);
+      builder.append(' ').append(index).append(':');
+      appendColor(builder, gradient.getMarkColor(index));
+    }
+    return builder.toString();
+  }
+
+  /**
+   * Preset building from its text form
+   *
+   * @param text text
+   * @return preset
+   * @see #toText()
+   */
+  static public JDegradeePreset fromText(final String text) {
+    final int eq = text.indexOf('=');
+    if (eq < 0) {
+      throw new RuntimeException("Invalid preset text (no name)");
+    }
+    final String[] fields = text.substring(eq + 1).trim().split("\\s+");
+    if (fields.length < 5) {
+      throw new RuntimeException("Invalid preset text (" + text + ")");
+    }
+    try {
+      final int numItems = Integer.parseInt(fields[0]);
+      final Orientation orientation = Orientation.valueOf(fields[1]);
+      final JDegradeeColorSpace space = JDegradeeColorSpace.valueOf(fields[2]);
+      final Color primary = parseColor(fields[3]);
+      final Color secondary = parseColor(fields[4]);
+      final int numMarks = fields.length - 5;
+      final int[] indexes = new int[numMarks];
+      final Color[] colors = new Color[numMarks];
+      for (int n = 0; n < numMarks; n++) {
+        final String field = fields[n + 5];
+        final int colon = field.indexOf(':');
+        if (colon < 0) {
+          throw new RuntimeException("Invalid mark (" + field + ")");
+        }
+        indexes[n] = Integer.parseInt(field.substring(0, colon));
+        colors[n] = parseColor(field.substring(colon + 1));
+      }
+      final JDegradeeGradient gradient = JDegradeeGradient.create(numItems, primary, secondary, space, indexes,
+        colors);
+      return new JDegradeePreset(text.substring(0, eq).trim(), gradient, orientation);
+    }
+    catch (IllegalArgumentException e) {
+      throw new RuntimeException("Invalid preset text (" + text + ")", e);
+    }
+  }
+
+  /**
+   * Reading of the presets of a text (one per line; empty lines and lines
+   * starting with <code>#</code> are ignored)
+   *
+   * @param text text
+   * @return presets
+   */
+  static public List<JDegradeePreset> fromLines(final CharSequence text) {
+    final List<JDegradeePreset> presets = new ArrayList<>();
+    for (String line : text.toString().split("\r?\n")) {
+      final String trimmed = line.trim();
+      if (!trimmed.isEmpty() && !trimmed.startsWith("#")) {
+        presets.add(fromText(trimmed));
+      }
+    }
+    return presets;
+  }
+
+  /**
+   * Packed ARGB color text (<code>#aarrggbb</code>)
+   *
+   * @param builder text builder
+   * @param color color
+   */
+  static private void appendColor(final StringBuilder builder, final Color color) {
+    final String hex = Integer.toHexString(color.getRGB());
+    builder.append('#');
+    for (int i = hex.length(); i < 8; i++) {
+      builder.append('0');
+    }
+    builder.append(hex);
+  }
+
+  /**
+   * Color parsing (<code>#aarrggbb</code>, or <code>#rrggbb</code> for an
+   * opaque color)
+   *
+   * @param text text
+   * @return color
+   */
+  static private Color parseColor(final String text) {
+    if (!text.startsWith("#") || (text.length() != 7 && text.length() != 9)) {
+      throw new RuntimeException("Invalid color (" + text + ")");
+    }
+    final int rgb = Integer.parseUnsignedInt(text.substring(1), 16);
+    return new Color(text.length() == 7 ? 0xff000000 | rgb : rgb, true);
+  }
+
+  /**
+   * Preset of the current state of a widget (the end gradient, while a
+   * transition is running)
+   *
+   * @param name name
+   * @param jDegradee widget
+   * @return preset
+   */
+  static public JDegradeePreset of(final String name, final JDegradee jDegradee) {
+    final JDegradeeGradient target = JDegradeeAnimator.getTarget(jDegradee);
+    final JDegradeeGradient gradient = target == null ? jDegradee.getGradient() : target;
+    return new JDegradeePreset(name, gradient, jDegradee.getOrientation());
+  }
+
+  /**
+   * Constructor
+   *
+   * @param name name
+   * @param gradient gradient
+   * @param orientation orientation
+   */
+  public JDegradeePreset(final String name, final JDegradeeGradient gradient, final Orientation orientation) {
+    if (name == null) {
+      throw new RuntimeException("Null name");
+    }
+    if (gradient == null) {
+      throw new RuntimeException("Null gradient");
+    }
+    if (orientation == null) {
+      throw new RuntimeException("Null orientation");
+    }
+    this.name = name;
+    this.gradient = gradient;
+    this.orientation = orientation;
+  }
+}
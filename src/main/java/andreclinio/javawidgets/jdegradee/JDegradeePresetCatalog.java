@@ -0,0 +1,161 @@
+package andreclinio.javawidgets.jdegradee;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Read-only preset catalog on a binary preset file (as written by
+ * {@link JDegradeePresetWriter}). The file is memory-mapped and only its
+ * index is checked when opened: each entry is decoded (and its gradient
+ * built) only when it is queried, so catalogs with thousands of presets open
+ * at once. Queries are thread-safe; decoded presets are not cached. An
+ * invalid entry (bad offset, truncated or corrupt data) is only detected when
+ * queried, and reported as a <code>RuntimeException</code>.
+ *
+ * @author André Clinio
+ */
+public final class JDegradeePresetCatalog {
+
+  /**
+   * Catalog data (never moved: queries use duplicates)
+   */
+  final private ByteBuffer buffer;
+
+  /**
+   * Number of presets
+   */
+  final private int numPresets;
+
+  /**
+   * Position of the entries offsets
+   */
+  final private int table;
+
+  /**
+   * Number of presets
+   *
+   * @return number of presets
+   */
+  final public int getNumPresets() {
+    return numPresets;
+  }
+
+  /**
+   * Preset name query (only the name is decoded)
+   *
+   * @param n preset position (from 0 up to {@link #getNumPresets()} - 1)
+   * @return name
+   */
+  final public String getName(final int n) {
+    return JDegradeePresetCodec.decodeName(getEntry(n));
+  }
+
+  /**
+   * Preset query (decoded at each call)
+   *
+   * @param n preset position (from 0 up to {@link #getNumPresets()} - 1)
+   * @return preset
+   */
+  final public JDegradeePreset getPreset(final int n) {
+    return JDegradeePresetCodec.decode(getEntry(n));
+  }
+
+  /**
+   * Search of a preset by name (names are decoded in catalog order)
+   *
+   * @param name name
+   * @return preset position (or -1 if not found)
+   */
+  final public int indexOf(final String name) {
+    for (int n = 0; n < numPresets; n++) {
+      if (getName(n).equals(name)) {
+        return n;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Entry bytes
+   *
+   * @param n preset position
+   * @return independent buffer (from the entry start up to its end)
+   */
+  private ByteBuffer getEntry(final int n) {
+    if (n < 0 || n >= numPresets) {
+      final String err = "Index out of range (0," + (numPresets - 1) + ")";
+      throw new RuntimeException(err);
+    }
+    final int offset = buffer.getInt(table + 4 * n);
+    if (offset < JDegradeePresetCodec.HEADER_LENGTH || offset >= table) {
+      throw new RuntimeException("Invalid preset catalog (offset " + offset + ")");
+    }
+    final ByteBuffer entry = buffer.duplicate();
+    entry.limit(table);
+    entry.position(offset);
+    final int length;
+    try {
+      length = JDegradeePresetCodec.getVarint(entry);
+    }
+    catch (BufferUnderflowException | IndexOutOfBoundsException e) {
+      throw new RuntimeException("Invalid preset catalog (truncated entry at " + offset + ")", e);
+    }
+    if (length > entry.remaining()) {
+      throw new RuntimeException("Invalid preset catalog (entry length " + length + ")");
+    }
+    entry.limit(entry.position() + length);
+    return entry.slice();
+  }
+
+  /**
+   * File mapping
+   *
+   * @param path file path
+   * @return mapped file
+   * @throws IOException in case of reading error
+   */
+  static private ByteBuffer map(final Path path) throws IOException {
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+    }
+  }
+
+  /**
+   * Constructor (memory-mapped file)
+   *
+   * @param path catalog file
+   * @throws IOException in case of reading error or invalid catalog
+   */
+  public JDegradeePresetCatalog(final Path path) throws IOException {
+    this(map(path));
+  }
+
+  /**
+   * Constructor (catalog data in memory, from its position up to its limit)
+   *
+   * @param data catalog data (not copied; must not be changed)
+   * @throws IOException in case of invalid catalog
+   */
+  public JDegradeePresetCatalog(final ByteBuffer data) throws IOException {
+    this.buffer = data.slice();
+    final int size = buffer.limit();
+    final int minSize = JDegradeePresetCodec.HEADER_LENGTH + 1 + JDegradeePresetCodec.TRAILER_LENGTH;
+    if (size < minSize || buffer.getInt(0) != JDegradeePresetCodec.MAGIC) {
+      throw new IOException("Invalid preset catalog (magic number)");
+    }
+    final int version = buffer.get(4);
+    if (version != JDegradeePresetCodec.VERSION) {
+      throw new IOException("Unsupported preset catalog version (" + version + ")");
+    }
+    final int trailer = size - JDegradeePresetCodec.TRAILER_LENGTH;
+    this.numPresets = buffer.getInt(trailer);
+    this.table = buffer.getInt(trailer + 4);
+    if (numPresets < 0 || table < JDegradeePresetCodec.HEADER_LENGTH + 1 || (long) table + 4L * numPresets != trailer) {
+      throw new IOException("Invalid preset catalog (index)");
+    }
+  }
+}
@@ -0,0 +1,191 @@
+package andreclinio.javawidgets.jdegradee;
+
+import java.awt.Color;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import andreclinio.javawidgets.jdegradee.JDegradee.Orientation;
+
+/**
+ * Binary preset format. A file (or stream) has a header (magic number and
+ * version), the entries (each one prefixed by its length as a varint), an
+ * end marker (a zero length) and a trailer with the entries offsets (so a
+ * catalog may find any entry with no scanning):
+ *
+ * <pre>
+ * header  : int magic, byte version
+ * entry   : varint length, bytes[length]
+ * end     : varint 0
+ * trailer : int offset[count], int count, int offset of the first offset
+ * </pre>
+ *
+ * An entry holds the name (varint length and UTF-8 bytes), the number of
+ * itens (varint), a byte with the orientation and color space, the primary
+ * and secondary colors (packed ARGB ints) and the marks (varint count and,
+ * for each mark, the varint gap from the previous mark and its packed ARGB
+ * color). Integers are big-endian.
+ *
+ * @author André Clinio
+ */
+final class JDegradeePresetCodec {
+
+  /**
+   * Magic number ("JDGR")
+   */
+  final static int MAGIC = 0x4a444752;
+
+  /**
+   * Format version
+   */
+  final static byte VERSION = 1;
+
+  /**
+   * Header length (bytes)
+   */
+  final static int HEADER_LENGTH = 5;
+
+  /**
+   * Trailer length, after the offsets (bytes)
+   */
+  final static int TRAILER_LENGTH = 8;
+
+  /**
+   * Maximum varint length (bytes)
+   */
+  final static int MAX_VARINT_LENGTH = 5;
+
+  /**
+   * Entry encoding
+   *
+   * @param preset preset
+   * @return entry bytes (with no length prefix)
+   */
+  static byte[] encode(final JDegradeePreset preset) {
+    final JDegradeeGradient gradient = preset.getGradient();
+    final byte[] name = preset.getName().getBytes(StandardCharsets.UTF_8);
+    final int numMarks = gradient.getNumMarks();
+    final int maxLength = 3 * MAX_VARINT_LENGTH + name.length + 9 + numMarks * (MAX_VARINT_LENGTH + 4);
+    final ByteBuffer buffer = ByteBuffer.allocate(maxLength);
+    putVarint(buffer, name.length);
+    buffer.put(name);
+    putVarint(buffer, gradient.getNumItems());
+    buffer.put((byte) (preset.getOrientation().ordinal() | gradient.getColorSpace().ordinal() << 2));
+    buffer.putInt(gradient.getPrimaryColor().getRGB());
+    buffer.putInt(gradient.getSecondaryColor().getRGB());
+    putVarint(buffer, numMarks);
+    int prev = -1;
+    for (int n = 0; n < numMarks; n++) {
+      final int index = gradient.getNthMarkIndex(n);
+      putVarint(buffer, index - prev - 1);
+      buffer.putInt(gradient.getMarkColor(index).getRGB());
+      prev = index;
+    }
+    return Arrays.copyOf(buffer.array(), buffer.position());
+  }
+
+  /**
+   * Entry name decoding (the rest of the entry is not decoded)
+   *
+   * @param buffer entry bytes (from its position up to its limit)
+   * @return name
+   */
+  static String decodeName(final ByteBuffer buffer) {
+    try {
+      final int length = getVarint(buffer);
+      if (length > buffer.remaining()) {
+        throw new RuntimeException("Invalid preset entry (name length)");
+      }
+      final byte[] name = new byte[length];
+      buffer.get(name);
+      return new String(name, StandardCharsets.UTF_8);
+    }
+    catch (BufferUnderflowException e) {
+      throw new RuntimeException("Invalid preset entry (truncated)", e);
+    }
+  }
+
+  /**
+   * Entry decoding
+   *
+   * @param buffer entry bytes (from its position up to its limit)
+   * @return preset
+   */
+  static JDegradeePreset decode(final ByteBuffer buffer) {
+    final String name = decodeName(buffer);
+    try {
+      final int numItems = getVarint(buffer);
+      final int flags = buffer.get() & 0xff;
+      final Orientation[] orientations = Orientation.values();
+      final JDegradeeColorSpace[] spaces = JDegradeeColorSpace.values();
+      final int orientation = flags & 0x3;
+      final int space = flags >>> 2;
+      if (orientation >= orientations.length || space >= spaces.length) {
+        throw new RuntimeException("Invalid preset entry (flags " + flags + ")");
+      }
+      final Color primary = new Color(buffer.getInt(), true);
+      final Color secondary = new Color(buffer.getInt(), true);
+      final int numMarks = getVarint(buffer);
+      if (numMarks > numItems || numMarks > buffer.remaining()) {
+        throw new RuntimeException("Invalid preset entry (" + numMarks + " marks)");
+      }
+      final int[] indexes = new int[numMarks];
+      final Color[] colors = new Color[numMarks];
+      int prev = -1;
+      for (int n = 0; n < numMarks; n++) {
+        prev += getVarint(buffer) + 1;
+        indexes[n] = prev;
+        colors[n] = new Color(buffer.getInt(), true);
+      }
+      final JDegradeeGradient gradient = JDegradeeGradient.create(numItems, primary, secondary, spaces[space],
+        indexes, colors);
+      return new JDegradeePreset(name, gradient, orientations[orientation]);
+    }
+    catch (BufferUnderflowException e) {
+      throw new RuntimeException("Invalid preset entry (truncated)", e);
+    }
+  }
+
+  /**
+   * Unsigned varint writing (7 bits per byte, lower bits first)
+   *
+   * @param buffer buffer
+   * @param value value (not negative)
+   */
+  static void putVarint(final ByteBuffer buffer, final int value) {
+    int v = value;
+    while ((v & ~0x7f) != 0) {
+      buffer.put((byte) ((v & 0x7f) | 0x80));
+      v >>>= 7;
+    }
+    buffer.put((byte) v);
+  }
+
+  /**
+   * Unsigned varint reading
+   *
+   * @param buffer buffer
+   * @return value
+   */
+  static int getVarint(final ByteBuffer buffer) {
+    int value = 0;
+    for (int shift = 0; shift < 32; shift += 7) {
+      final int b = buffer.get();
+      value |= (b & 0x7f) << shift;
+      if ((b & 0x80) == 0) {
+        if (value < 0) {
+          break;
+        }
+        return value;
+      }
+    }
+    throw new RuntimeException("Invalid preset entry (varint)");
+  }
+
+  /**
+   * Constructor (no instances)
+   */
+  private JDegradeePresetCodec() {
+  }
+}
@@ -0,0 +1,107 @@
+package andreclinio.javawidgets.jdegradee;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * Streaming reader of presets in the binary format: the entries are read
+ * one at a time, in the written order (the entries index is not used).
+ *
+ * @author André Clinio
+ * @see JDegradeePresetWriter
+ * @see JDegradeePresetCatalog
+ */
+public class JDegradeePresetReader implements Closeable {
+
+  /**
+   * Input stream
+   */
+  final private DataInputStream in;
+
+  /**
+   * End of entries flag
+   */
+  private boolean ended = false;
+
+  /**
+   * Next preset reading
+   *
+   * @return preset (or <code>null</code> after the last one)
+   * @throws IOException in case of reading error (or invalid entry)
+   */
+  final public JDegradeePreset read() throws IOException {
+    if (ended) {
+      return null;
+    }
+    final int length = readVarint();
+    if (length <= 0) {
+      ended = true;
+      return null;
+    }
+    final byte[] entry = new byte[length];
+    in.readFully(entry);
+    try {
+      return JDegradeePresetCodec.decode(ByteBuffer.wrap(entry));
+    }
+    catch (RuntimeException e) {
+      throw new IOException(e.getMessage(), e);
+    }
+  }
+
+  /**
+   * Reader closing (the stream is closed)
+   *
+   * @throws IOException in case of closing error
+   */
+  @Override
+  final public void close() throws IOException {
+    in.close();
+  }
+
+  /**
+   * Entry length reading: the stream end (with no end marker) is taken as
+   * the end of the entries.
+   *
+   * @return length (or 0 at the end)
+   * @throws IOException in case of reading error
+   */
+  private int readVarint() throws IOException {
+    int value = 0;
+    for (int shift = 0; shift < 32; shift += 7) {
+      final int b = in.read();
+      if (b < 0) {
+        if (shift == 0) {
+          return 0;
+        }
+        throw new EOFException("Truncated preset stream");
+      }
+      value |= (b & 0x7f) << shift;
+      if ((b & 0x80) == 0) {
+        return value;
+      }
+    }
+    throw new IOException("Invalid preset stream (varint)");
+  }
+
+  /**
+   * Constructor (the header is checked at once)
+   *
+   * @param stream input stream
+   * @throws IOException in case of reading error or invalid header
+   */
+  public JDegradeePresetReader(final InputStream stream) throws IOException {
+    this.in = new DataInputStream(new BufferedInputStream(stream));
+    if (in.readInt() != JDegradeePresetCodec.MAGIC) {
+      throw new IOException("Invalid preset stream (magic number)");
+    }
+    final int version = in.readByte();
+    if (version != JDegradeePresetCodec.VERSION) {
+      throw new IOException("Unsupported preset stream version (" + version + ")");
+    }
+  }
+}
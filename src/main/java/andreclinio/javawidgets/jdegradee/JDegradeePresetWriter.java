@@ -0,0 +1,123 @@
+package andreclinio.javawidgets.jdegradee;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Streaming writer of presets in the binary format. The entries are written
+ * as they are given; closing the writer adds the entries index, so the
+ * output may be opened as a {@link JDegradeePresetCatalog}.
+ *
+ * @author André Clinio
+ * @see JDegradeePresetReader
+ */
+public class JDegradeePresetWriter implements Closeable {
+
+  /**
+   * Output stream
+   */
+  final private DataOutputStream out;
+
+  /**
+   * Entries offsets
+   */
+  private int[] offsets = new int[64];
+
+  /**
+   * Number of entries
+   */
+  private int numEntries = 0;
+
+  /**
+   * Closed writer flag
+   */
+  private boolean closed = false;
+
+  /**
+   * Varint buffer
+   */
+  final private ByteBuffer varint = ByteBuffer.allocate(JDegradeePresetCodec.MAX_VARINT_LENGTH);
+
+  /**
+   * Preset writing
+   *
+   * @param preset preset
+   * @throws IOException in case of writing error
+   */
+  final public void write(final JDegradeePreset preset) throws IOException {
+    if (closed) {
+      throw new IOException("Writer closed");
+    }
+    final byte[] entry = JDegradeePresetCodec.encode(preset);
+    if (numEntries == offsets.length) {
+      offsets = Arrays.copyOf(offsets, numEntries * 2);
+    }
+    offsets[numEntries++] = out.size();
+    writeVarint(entry.length);
+    out.write(entry);
+  }
+
+  /**
+   * Number of written presets
+   *
+   * @return number of presets
+   */
+  final public int getNumPresets() {
+    return numEntries;
+  }
+
+  /**
+   * Writer closing: the end marker and the entries index are written and
+   * the stream is closed.
+   *
+   * @throws IOException in case of writing error
+   */
+  @Override
+  final public void close() throws IOException {
+    if (closed) {
+      return;
+    }
+    closed = true;
+    try {
+      writeVarint(0);
+      final int table = out.size();
+      for (int i = 0; i < numEntries; i++) {
+        out.writeInt(offsets[i]);
+      }
+      out.writeInt(numEntries);
+      out.writeInt(table);
+    }
+    finally {
+      out.close();
+    }
+  }
+
+  /**
+   * Varint writing
+   *
+   * @param value value
+   * @throws IOException in case of writing error
+   */
+  private void writeVarint(final int value) throws IOException {
+    varint.clear();
+    JDegradeePresetCodec.putVarint(varint, value);
+    out.write(varint.array(), 0, varint.position());
+  }
+
+  /**
+   * Constructor (the header is written at once)
+   *
+   * @param stream output stream
+   * @throws IOException in case of writing error
+   */
+  public JDegradeePresetWriter(final OutputStream stream) throws IOException {
+    this.out = new DataOutputStream(new BufferedOutputStream(stream));
+    out.writeInt(JDegradeePresetCodec.MAGIC);
+    out.writeByte(JDegradeePresetCodec.VERSION);
+  }
+}
@@ -0,0 +1,91 @@
+package andreclinio.javawidgets.jdegradee;
+
+/**
+ * Scalar palette interpolation kernel (packed ARGB colors, fixed-point
+ * arithmetic). Used on any Java version and as the fallback of the
+ * vectorized kernel.
+ *
+ * @author André Clinio
+ * @see JDegradeeInterpolator
+ */
+final class JDegradeeScalarInterpolator {
+
+  /**
+   * Fraction bits of the fixed-point interpolation
+   */
+  final static int FRACTION_BITS = 48;
+
+  /**
+   * Interpolation kernel: fills an interval with packed ARGB colors (alpha
+   * included) from <code>fromRGB</code> at <code>start</code> up to
+   * <code>toRGB</code> at <code>end</code>. Channels are accumulated in
+   * fixed-point (a single addition per channel and item); the fraction is
+   * wide enough for the result to be the exactly rounded value for any
+   * number of itens.
+   *
+   * @param array palette to be filled
+   * @param first first index to be filled
+   * @param last last index to be filled
+   * @param start index of the <code>fromRGB</code> color
+   * @param end index of the <code>toRGB</code> color
+   * @param fromRGB first packed ARGB color
+   * @param toRGB last packed ARGB color
+   */
+  static void interpolate(final int[] array, final int first, final int last, final int start,
+    final int end, final int fromRGB, final int toRGB) {
+    if (first > last) {
+      return;
+    }
+    final int delta = end - start;
+    final int offset = first - start;
+    final long stepA = getFixedStep(fromRGB >>> 24, toRGB >>> 24, delta);
+    final long stepR = getFixedStep((fromRGB >> 16) & 0xff, (toRGB >> 16) & 0xff, delta);
+    final long stepG = getFixedStep((fromRGB >> 8) & 0xff, (toRGB >> 8) & 0xff, delta);
+    final long stepB = getFixedStep(fromRGB & 0xff, toRGB & 0xff, delta);
+    long a = getFixedStart(fromRGB >>> 24, stepA, offset);
+    long r = getFixedStart((fromRGB >> 16) & 0xff, stepR, offset);
+    long g = getFixedStart((fromRGB >> 8) & 0xff, stepG, offset);
+    long b = getFixedStart(fromRGB & 0xff, stepB, offset);
+    for (int i = first; i <= last; i++) {
+      array[i] = (int) (a >> FRACTION_BITS) << 24 | (int) (r >> FRACTION_BITS) << 16
+        | (int) (g >> FRACTION_BITS) << 8 | (int) (b >> FRACTION_BITS);
+      a += stepA;
+      r += stepR;
+      g += stepG;
+      b += stepB;
+    }
+  }
+
+  /**
+   * Fixed-point channel step per item, rounded up: the accumulated error is
+   * never negative (ties are rounded up, as {@link Math#round(double)}) and
+   * always smaller than the distance to a rounding boundary.
+   *
+   * @param from first channel value
+   * @param to last channel value
+   * @param delta number of steps
+   * @return step (fixed-point)
+   */
+  static long getFixedStep(final int from, final int to, final int delta) {
+    return -Math.floorDiv(-((long) (to - from) << FRACTION_BITS), delta);
+  }
+
+  /**
+   * Fixed-point channel value at the first filled item (plus one half, so the
+   * integer part is the rounded value)
+   *
+   * @param from first channel value
+   * @param step step (fixed-point)
+   * @param offset number of steps up to the first filled item
+   * @return value (fixed-point)
+   */
+  static long getFixedStart(final int from, final long step, final int offset) {
+    return ((long) from << FRACTION_BITS) + (1L << (FRACTION_BITS - 1)) + step * offset;
+  }
+
+  /**
+   * Constructor (no instances)
+   */
+  private JDegradeeScalarInterpolator() {
+  }
+}
@@ -3,6 +3,7 @@ package andreclinio.javawidgets.jdegradee.adapters;
 import java.awt.Color;
 import java.awt.event.MouseEvent;
 import java.awt.event.MouseWheelEvent;
+import java.util.function.Supplier;
 
 import andreclinio.javawidgets.jdegradee.JDegradee;
 
@@ -97,4 +98,23 @@ public class JDegradeeAdapter {
   public void mouseMoved(final JDegradee jDegradee, final int index, final Color color, final MouseEvent event) {
   }
 
+  /**
+   * Hovered item change event: sent only when the pointer (moving or
+   * dragging) enters another item or leaves the itens. The color is only
+   * calculated when asked to the handle.
+   * <p>
+   * Widgets only locate the pointer on motion events when some adapter
+   * overrides this method, {@link #mouseMoved} or {@link #mouseDragged}.
+   *
+   * @param jDegradee widget
+   * @param oldIndex previous hovered index (or <code>-1</code>)
+   * @param index hovered index (or <code>-1</code> when no item is hovered)
+   * @param color hovered color handle (returning <code>null</code> when no
+   *        item is hovered)
+   * @param event original Java event
+   */
+  public void hoverIndexChanged(final JDegradee jDegradee, final int oldIndex, final int index,
+    final Supplier<Color> color, final MouseEvent event) {
+  }
+
 }
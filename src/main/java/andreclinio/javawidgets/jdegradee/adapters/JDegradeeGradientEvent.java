@@ -0,0 +1,112 @@
+package andreclinio.javawidgets.jdegradee.adapters;
+
+import java.util.EventObject;
+
+import andreclinio.javawidgets.jdegradee.JDegradee;
+import andreclinio.javawidgets.jdegradee.JDegradeeGradient;
+
+/**
+ * Gradient change event: a single event is fired for each change (or batch
+ * of changes) of the widget gradient.
+ *
+ * @author André Clinio
+ * @see JDegradeeGradientListener
+ */
+public class JDegradeeGradientEvent extends EventObject {
+
+  /**
+   * Previous gradient
+   */
+  final private transient JDegradeeGradient oldGradient;
+
+  /**
+   * New gradient
+   */
+  final private transient JDegradeeGradient gradient;
+
+  /**
+   * First changed index
+   */
+  final private int firstIndex;
+
+  /**
+   * Last changed index
+   */
+  final private int lastIndex;
+
+  /**
+   * Widget query
+   *
+   * @return widget
+   */
+  final public JDegradee getDegradee() {
+    return (JDegradee) getSource();
+  }
+
+  /**
+   * Previous gradient query
+   *
+   * @return gradient
+   */
+  final public JDegradeeGradient getOldGradient() {
+    return oldGradient;
+  }
+
+  /**
+   * New gradient query
+   *
+   * @return gradient
+   */
+  final public JDegradeeGradient getGradient() {
+    return gradient;
+  }
+
+  /**
+   * First index whose color or mark changed (0 when the number of itens
+   * changed). When no item changed (as for a primary color hidden by a
+   * mark), it is greater than {@link #getLastIndex()}.
+   *
+   * @return index
+   */
+  final public int getFirstIndex() {
+    return firstIndex;
+  }
+
+  /**
+   * Last index whose color or mark changed (the last item when the number of
+   * itens changed)
+   *
+   * @return index
+   */
+  final public int getLastIndex() {
+    return lastIndex;
+  }
+
+  /**
+   * Checks if the number of itens changed (all itens must be considered
+   * changed)
+   *
+   * @return flag
+   */
+  final public boolean isNumItemsChanged() {
+    return oldGradient.getNumItems() != gradient.getNumItems();
+  }
+
+  /**
+   * Constructor
+   *
+   * @param jDegradee widget
+   * @param oldGradient previous gradient
+   * @param gradient new gradient
+   * @param firstIndex first changed index
+   * @param lastIndex last changed index
+   */
+  public JDegradeeGradientEvent(final JDegradee jDegradee, final JDegradeeGradient oldGradient,
+    final JDegradeeGradient gradient, final int firstIndex, final int lastIndex) {
+    super(jDegradee);
+    this.oldGradient = oldGradient;
+    this.gradient = gradient;
+    this.firstIndex = firstIndex;
+    this.lastIndex = lastIndex;
+  }
+}
@@ -0,0 +1,24 @@
+package andreclinio.javawidgets.jdegradee.adapters;
+
+import java.util.EventListener;
+
+import andreclinio.javawidgets.jdegradee.JDegradee;
+
+/**
+ * Gradient change listener
+ *
+ * @author André Clinio
+ * @see JDegradee#addGradientListener(JDegradeeGradientListener)
+ */
+@FunctionalInterface
+public interface JDegradeeGradientListener extends EventListener {
+
+  /**
+   * Gradient change event (fired on the event dispatch thread, after the
+   * change)
+   *
+   * @param event event
+   */
+  void gradientChanged(final JDegradeeGradientEvent event);
+
+}
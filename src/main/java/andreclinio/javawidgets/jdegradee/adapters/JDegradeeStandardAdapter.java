@@ -3,16 +3,17 @@ package andreclinio.javawidgets.jdegradee.adapters;
 import java.awt.Color;
 import java.awt.event.ActionEvent;
 import java.awt.event.MouseEvent;
-import java.awt.geom.Rectangle2D;
 
 import javax.swing.AbstractAction;
 import javax.swing.JColorChooser;
 import javax.swing.JPopupMenu;
 
 import andreclinio.javawidgets.jdegradee.JDegradee;
+import andreclinio.javawidgets.jdegradee.JDegradeeGradient;
 
 /**
- * Default mouse adapter.
+ * Default mouse adapter: marks are created by double-click, moved by
+ * dragging and edited (or deleted) through a popup menu.
  *
  * @author André Clinio
  */
@@ -28,6 +29,16 @@ public class JDegradeeStandardAdapter extends JDegradeeAdapter {
    */
   final private String deletionString;
 
+  /**
+   * Widget whose mark is being dragged
+   */
+  private JDegradee dragWidget;
+
+  /**
+   * Current index of the dragged mark (or -1)
+   */
+  private int dragIndex = -1;
+
   /**
    * Color chooser
    *
@@ -48,21 +59,7 @@ public class JDegradeeStandardAdapter extends JDegradeeAdapter {
    * @return valid index or -1.
    */
   protected static int getMarkIndexOnEvent(final JDegradee jDegradee, final MouseEvent event) {
-    final int numItems = jDegradee.getNumItems();
-    for (int idx = 0; idx < numItems; idx++) {
-      if (jDegradee.hasMarkColor(idx)) {
-        final Rectangle2D rect = jDegradee.getMarkBounds(idx);
-        if (rect == null) {
-          return -1;
-        }
-        final double x = event.getX();
-        final double y = event.getY();
-        if (rect.contains(x, y)) {
-          return idx;
-        }
-      }
-    }
-    return -1;
+    return jDegradee.markAt(event.getX(), event.getY());
   }
 
   /**
@@ -159,17 +156,54 @@ public class JDegradeeStandardAdapter extends JDegradeeAdapter {
   final public void mousePressed(final JDegradee jDegradee, final int index, final Color color,
     final MouseEvent event) {
     final int idx = getMarkIndexOnEvent(jDegradee, event);
+    dragWidget = null;
+    dragIndex = -1;
     if (idx >= 0) {
+      if (event.getButton() == MouseEvent.BUTTON1) {
+        dragWidget = jDegradee;
+        dragIndex = idx;
+      }
       tryMarkMenu(jDegradee, event, idx);
     }
   }
 
+  /**
+   * {@inheritDoc}
+   * <p>
+   * The dragged mark follows the pointer, kept between its neighbour marks.
+   * The drag ends if the mark is removed meanwhile (by a gradient change).
+   */
+  @Override
+  final public void mouseDragged(final JDegradee jDegradee, final int index, final Color color,
+    final MouseEvent event) {
+    if (jDegradee != dragWidget || dragIndex < 0) {
+      return;
+    }
+    final JDegradeeGradient gradient = jDegradee.getGradient();
+    if (!gradient.hasMarkColor(dragIndex)) {
+      dragWidget = null;
+      dragIndex = -1;
+      return;
+    }
+    final int before = gradient.getMarkBefore(dragIndex);
+    final int after = gradient.getMarkAfter(dragIndex);
+    final int lo = before + 1;
+    final int hi = after >= 0 ? after - 1 : gradient.getNumItems() - 1;
+    final int newIndex = Math.max(lo, Math.min(index, hi));
+    if (newIndex != dragIndex) {
+      jDegradee.moveMark(dragIndex, newIndex);
+      dragIndex = newIndex;
+    }
+  }
+
   /**
    * {@inheritDoc}
    */
   @Override
   final public void mouseReleased(final JDegradee jDegradee, final int index, final Color color,
     final MouseEvent event) {
+    dragWidget = null;
+    dragIndex = -1;
     final int idx = getMarkIndexOnEvent(jDegradee, event);
     if (idx >= 0) {
       tryMarkMenu(jDegradee, event, idx);
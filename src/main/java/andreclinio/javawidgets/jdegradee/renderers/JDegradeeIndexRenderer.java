@@ -2,13 +2,18 @@ package andreclinio.javawidgets.jdegradee.renderers;
 
 import java.awt.Color;
 import java.awt.Font;
-import java.awt.FontMetrics;
 import java.awt.Graphics2D;
+import java.awt.font.FontRenderContext;
 import java.awt.geom.Rectangle2D;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 import andreclinio.javawidgets.jdegradee.JDegradee;
+import andreclinio.javawidgets.jdegradee.JDegradeeGradient;
 
 /**
+ * Item index renderer. The text and bounds of each label are cached (per
+ * font, rendering context and number of itens) and reused by later paints.
+ *
  * @author Andr Clinio
  */
 public class JDegradeeIndexRenderer implements JDegradeeRenderer {
@@ -24,23 +29,69 @@ public class JDegradeeIndexRenderer implements JDegradeeRenderer {
   final private Color textColor;
 
   /**
-   * Drawing of a centered string (not clipped) inside a rectangle.
+   * Label cache (replaced when the font context or number of itens changes)
+   */
+  private volatile LabelCache cache;
+
+  /**
+   * Drawing of a label (not clipped) centered at a point.
+   *
+   * @param g2d Java graphic context
+   * @param label label
+   * @param cx center X
+   * @param cy center Y
+   */
+  private void drawLabel(final Graphics2D g2d, final Label label, final double cx, final double cy) {
+    final float xc = (float) (cx - label.halfWidth);
+    final float yc = (float) (cy + label.halfHeight);
+    g2d.drawString(label.text, xc, yc);
+  }
+
+  /**
+   * Label query (from the cache, or measured and cached)
    *
    * @param g2d Java graphic context
-   * @param text text
-   * @param box retangle
+   * @param numItems number of itens
+   * @param index index
+   * @return label (or <code>null</code> for no text)
    */
-  private void drawStringInBox(final Graphics2D g2d, final String text, final Rectangle2D box) {
-    final double x = box.getCenterX();
-    final double y = box.getCenterY();
-    final FontMetrics fm = g2d.getFontMetrics();
-    final Rectangle2D r = fm.getStringBounds(text, g2d);
-    final double w = r.getWidth();
-    final double h = r.getHeight();
-    final float xc = (float) (x - (w / 2.0));
-    final float yc = (float) (y + (h / 2.0));
-
-    g2d.drawString(text, xc, yc);
+  private Label getLabel(final Graphics2D g2d, final int numItems, final int index) {
+    final Font font = textFont == null ? g2d.getFont() : textFont;
+    final FontRenderContext frc = g2d.getFontRenderContext();
+    if (index < 0 || index >= numItems) {
+      return createLabel(font, frc, index);
+    }
+    LabelCache c = cache;
+    if (c == null || !c.matches(font, frc, numItems)) {
+      c = new LabelCache(font, frc, numItems);
+      cache = c;
+    }
+    Label label = c.labels.get(index);
+    if (label == null) {
+      label = createLabel(font, frc, index);
+      if (label == null) {
+        return null;
+      }
+      c.labels.compareAndSet(index, null, label);
+    }
+    return label;
+  }
+
+  /**
+   * Label measurement
+   *
+   * @param font font
+   * @param frc font rendering context
+   * @param index index
+   * @return label (or <code>null</code> for no text)
+   */
+  private Label createLabel(final Font font, final FontRenderContext frc, final int index) {
+    final String text = getText(index);
+    if (text == null) {
+      return null;
+    }
+    final Rectangle2D r = font.getStringBounds(text, frc);
+    return new Label(text, r.getWidth() / 2.0, r.getHeight() / 2.0);
   }
 
   /**
@@ -57,28 +108,112 @@ public class JDegradeeIndexRenderer implements JDegradeeRenderer {
    * {@inheritDoc}
    */
   final public void render(final JDegradee jDegradee, final Graphics2D g2d, final Rectangle2D rect, final int index) {
-    final String text = getText(index);
-    if (text == null) {
+    render(jDegradee.getGradient(), jDegradee.getOrientation(), g2d, rect, index);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  final public void render(final JDegradeeGradient gradient, final JDegradee.Orientation orientation,
+    final Graphics2D g2d, final Rectangle2D rect, final int index) {
+    final Label label = getLabel(g2d, gradient.getNumItems(), index);
+    if (label == null) {
       return;
     }
-    g2d.setFont(textFont);
+    if (textFont != null) {
+      g2d.setFont(textFont);
+    }
     g2d.setColor(textColor == null ? Color.black : textColor);
-    final Rectangle2D txtRect = new Rectangle2D.Double();
-    switch (jDegradee.getOrientation()) {
-      case HORIZONTAL: {
-        final double h = rect.getHeight() / 2.0;
-        final double y = rect.getCenterY();
-        txtRect.setFrame(rect.getMinX(), y, rect.getWidth(), h);
+    // Center of the lower half (horizontal) or left half (vertical)
+    switch (orientation) {
+      case HORIZONTAL:
+        drawLabel(g2d, label, rect.getCenterX(), rect.getCenterY() + rect.getHeight() / 4.0);
         break;
-      }
-      case VERTICAL: {
-        final double w = rect.getWidth() / 2.0;
-        final double x = rect.getMinX();
-        txtRect.setFrame(x, rect.getMinY(), w, rect.getHeight());
+      case VERTICAL:
+        drawLabel(g2d, label, rect.getMinX() + rect.getWidth() / 4.0, rect.getCenterY());
         break;
-      }
     }
-    drawStringInBox(g2d, text, txtRect);
+  }
+
+  /**
+   * Measured label (text and half of its logical size)
+   */
+  final static private class Label {
+
+    /**
+     * Text
+     */
+    final String text;
+
+    /**
+     * Half width
+     */
+    final double halfWidth;
+
+    /**
+     * Half height
+     */
+    final double halfHeight;
+
+    /**
+     * Constructor
+     *
+     * @param text text
+     * @param halfWidth half width
+     * @param halfHeight half height
+     */
+    Label(final String text, final double halfWidth, final double halfHeight) {
+      this.text = text;
+      this.halfWidth = halfWidth;
+      this.halfHeight = halfHeight;
+    }
+  }
+
+  /**
+   * Labels of all itens, measured for a font and rendering context (lazily
+   * filled; safe for concurrent tile rendering)
+   */
+  final static private class LabelCache {
+
+    /**
+     * Font
+     */
+    final Font font;
+
+    /**
+     * Font rendering context (font transform and hints)
+     */
+    final FontRenderContext frc;
+
+    /**
+     * Labels by index
+     */
+    final AtomicReferenceArray<Label> labels;
+
+    /**
+     * Checks if this cache may be used
+     *
+     * @param f font
+     * @param context font rendering context
+     * @param numItems number of itens
+     * @return indicative
+     */
+    boolean matches(final Font f, final FontRenderContext context, final int numItems) {
+      return labels.length() == numItems && font.equals(f) && frc.equals(context);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param font font
+     * @param frc font rendering context
+     * @param numItems number of itens
+     */
+    LabelCache(final Font font, final FontRenderContext frc, final int numItems) {
+      this.font = font;
+      this.frc = frc;
+      this.labels = new AtomicReferenceArray<>(numItems);
+    }
   }
 
   /**
@@ -4,6 +4,7 @@ import java.awt.Graphics2D;
 import java.awt.geom.Rectangle2D;
 
 import andreclinio.javawidgets.jdegradee.JDegradee;
+import andreclinio.javawidgets.jdegradee.JDegradeeGradient;
 
 /**
  * Extension drawing interface.
@@ -23,4 +24,19 @@ public interface JDegradeeRenderer {
    */
    void render(final JDegradee jDegradee, final Graphics2D g2d, final Rectangle2D rect, final int index);
 
+  /**
+   * Render anything else inside de element, when drawing without a widget
+   * (headless export). The default implementation draws nothing.
+   *
+   * @param gradient gradient
+   * @param orientation orientation
+   * @param g2d graphics for drawing
+   * @param rect drawing area
+   * @param index element index
+   * @see andreclinio.javawidgets.jdegradee.JDegradeeExporter
+   */
+  default void render(final JDegradeeGradient gradient, final JDegradee.Orientation orientation,
+    final Graphics2D g2d, final Rectangle2D rect, final int index) {
+  }
+
 }
@@ -0,0 +1,83 @@
+package andreclinio.javawidgets.jdegradee;
+
+/**
+ * Palette interpolation entry point. This is the Java 17 version (in the
+ * multi-release JAR): when the <code>jdk.incubator.vector</code> module is
+ * present (<code>--add-modules jdk.incubator.vector</code>), long intervals
+ * are filled by the vectorized kernel; otherwise, or when the system
+ * property <code>andreclinio.javawidgets.jdegradee.scalar</code> is
+ * <code>true</code>, the scalar kernel is used. Both produce the same
+ * colors.
+ *
+ * @author André Clinio
+ * @see JDegradeeScalarInterpolator
+ * @see JDegradeeVectorInterpolator
+ */
+final class JDegradeeInterpolator {
+
+  /**
+   * Vector module name
+   */
+  final static private String VECTOR_MODULE = "jdk.incubator.vector";
+
+  /**
+   * Vectorized kernel flag
+   */
+  final static private boolean VECTORIZED = isVectorAvailable();
+
+  /**
+   * Minimum interval length for the vectorized kernel
+   */
+  final static private int VECTOR_THRESHOLD = 64;
+
+  /**
+   * Checks if the vectorized kernel may be used: the module must be in the
+   * boot layer (the kernel class is only loaded in this case).
+   *
+   * @return flag
+   */
+  static private boolean isVectorAvailable() {
+    if (Boolean.getBoolean("andreclinio.javawidgets.jdegradee.scalar")) {
+      return false;
+    }
+    return ModuleLayer.boot().findModule(VECTOR_MODULE).isPresent();
+  }
+
+  /**
+   * Checks if the vectorized kernel is in use
+   *
+   * @return flag
+   */
+  static boolean isVectorized() {
+    return VECTORIZED;
+  }
+
+  /**
+   * Fills an interval with packed ARGB colors, from <code>fromRGB</code> at
+   * <code>start</code> up to <code>toRGB</code> at <code>end</code>.
+   *
+   * @param array palette to be filled
+   * @param first first index to be filled
+   * @param last last index to be filled
+   * @param start index of the <code>fromRGB</code> color
+   * @param end index of the <code>toRGB</code> color
+   * @param fromRGB first packed ARGB color
+   * @param toRGB last packed ARGB color
+   * @see JDegradeeScalarInterpolator#interpolate(int[], int, int, int, int, int, int)
+   */
+  static void interpolate(final int[] array, final int first, final int last, final int start, final int end,
+    final int fromRGB, final int toRGB) {
+    if (VECTORIZED && last - first >= VECTOR_THRESHOLD) {
+      JDegradeeVectorInterpolator.interpolate(array, first, last, start, end, fromRGB, toRGB);
+    }
+    else {
+      JDegradeeScalarInterpolator.interpolate(array, first, last, start, end, fromRGB, toRGB);
+    }
+  }
+
+  /**
+   * Constructor (no instances)
+   */
+  private JDegradeeInterpolator() {
+  }
+}
@@ -0,0 +1,86 @@
+package andreclinio.javawidgets.jdegradee;
+
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorShape;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Vectorized palette interpolation kernel (Java 17, incubator Vector API).
+ * The fixed-point channel accumulators of the scalar kernel are kept in
+ * <code>long</code> lanes, one item per lane, and each group of packed
+ * colors is narrowed to <code>int</code> lanes and stored at once. Results
+ * are identical to {@link JDegradeeScalarInterpolator}.
+ *
+ * @author André Clinio
+ */
+final class JDegradeeVectorInterpolator {
+
+  /**
+   * Accumulator species
+   */
+  final static private VectorSpecies<Long> LONGS = LongVector.SPECIES_PREFERRED;
+
+  /**
+   * Packed color species (same number of lanes, half the bits)
+   */
+  final static private VectorSpecies<Integer> INTS =
+    VectorSpecies.of(int.class, VectorShape.forBitSize(LONGS.vectorBitSize() / 2));
+
+  /**
+   * Fills an interval with packed ARGB colors
+   *
+   * @param array palette to be filled
+   * @param first first index to be filled
+   * @param last last index to be filled
+   * @param start index of the <code>fromRGB</code> color
+   * @param end index of the <code>toRGB</code> color
+   * @param fromRGB first packed ARGB color
+   * @param toRGB last packed ARGB color
+   * @see JDegradeeScalarInterpolator#interpolate(int[], int, int, int, int, int, int)
+   */
+  static void interpolate(final int[] array, final int first, final int last, final int start, final int end,
+    final int fromRGB, final int toRGB) {
+    if (first > last) {
+      return;
+    }
+    final int bits = JDegradeeScalarInterpolator.FRACTION_BITS;
+    final int lanes = LONGS.length();
+    final int delta = end - start;
+    final int offset = first - start;
+    final long stepA = JDegradeeScalarInterpolator.getFixedStep(fromRGB >>> 24, toRGB >>> 24, delta);
+    final long stepR = JDegradeeScalarInterpolator.getFixedStep((fromRGB >> 16) & 0xff, (toRGB >> 16) & 0xff, delta);
+    final long stepG = JDegradeeScalarInterpolator.getFixedStep((fromRGB >> 8) & 0xff, (toRGB >> 8) & 0xff, delta);
+    final long stepB = JDegradeeScalarInterpolator.getFixedStep(fromRGB & 0xff, toRGB & 0xff, delta);
+    final LongVector iota = LongVector.zero(LONGS).addIndex(1);
+    LongVector a = iota.mul(stepA).add(JDegradeeScalarInterpolator.getFixedStart(fromRGB >>> 24, stepA, offset));
+    LongVector r = iota.mul(stepR).add(JDegradeeScalarInterpolator.getFixedStart((fromRGB >> 16) & 0xff, stepR, offset));
+    LongVector g = iota.mul(stepG).add(JDegradeeScalarInterpolator.getFixedStart((fromRGB >> 8) & 0xff, stepG, offset));
+    LongVector b = iota.mul(stepB).add(JDegradeeScalarInterpolator.getFixedStart(fromRGB & 0xff, stepB, offset));
+    final long laneStepA = stepA * lanes;
+    final long laneStepR = stepR * lanes;
+    final long laneStepG = stepG * lanes;
+    final long laneStepB = stepB * lanes;
+    final int bound = first + LONGS.loopBound(last - first + 1);
+    int i = first;
+    for (; i < bound; i += lanes) {
+      final LongVector packed = a.lanewise(VectorOperators.ASHR, bits).lanewise(VectorOperators.LSHL, 24)
+        .or(r.lanewise(VectorOperators.ASHR, bits).lanewise(VectorOperators.LSHL, 16))
+        .or(g.lanewise(VectorOperators.ASHR, bits).lanewise(VectorOperators.LSHL, 8))
+        .or(b.lanewise(VectorOperators.ASHR, bits));
+      ((IntVector) packed.convertShape(VectorOperators.L2I, INTS, 0)).intoArray(array, i);
+      a = a.add(laneStepA);
+      r = r.add(laneStepR);
+      g = g.add(laneStepG);
+      b = b.add(laneStepB);
+    }
+    JDegradeeScalarInterpolator.interpolate(array, i, last, start, end, fromRGB, toRGB);
+  }
+
+  /**
+   * Constructor (no instances)
+   */
+  private JDegradeeVectorInterpolator() {
+  }
+}
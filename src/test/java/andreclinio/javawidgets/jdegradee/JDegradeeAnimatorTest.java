@@ -0,0 +1,104 @@
+package andreclinio.javawidgets.jdegradee;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import java.awt.Color;
+
+import javax.swing.SwingUtilities;
+
+import org.junit.Test;
+
+/**
+ * Transition checks (frames and frame budget)
+ *
+ * @author Andr Clinio
+ */
+public class JDegradeeAnimatorTest {
+
+  /**
+   * Gradient with a green mark at 10
+   *
+   * @param space color space
+   * @return gradient
+   */
+  static private JDegradeeGradient create(final JDegradeeColorSpace space) {
+    return JDegradeeGradient.create(21, Color.red, Color.blue, space, new int[] { 10 },
+      new Color[] { Color.green });
+  }
+
+  /**
+   * A frame between gradients that differ only in color space has the
+   * colors and marks of the target, but not its palette: it never equals
+   * the built target (its derived gradients do)
+   */
+  @Test
+  public void framesNeverEqualBuiltGradients() {
+    final JDegradeeGradient from = create(JDegradeeColorSpace.SRGB);
+    final JDegradeeGradient to = create(JDegradeeColorSpace.LINEAR_RGB);
+    final JDegradeeGradient frame = from.blend(to, 128);
+    assertFalse(frame.equals(to));
+    assertFalse(to.equals(frame));
+    assertEquals(frame, from.blend(to, 128));
+    assertFalse(frame.equals(from.blend(to, 64)));
+    final JDegradeeGradient derived = frame.withPrimaryColor(Color.red);
+    assertEquals(to, derived);
+    assertArrayEquals(to.getPalette(), derived.getPalette());
+  }
+
+  /**
+   * Transitions beyond the frame budget skip the tick (except the first
+   * one) and are served first in the next tick; finished transitions are
+   * never skipped
+   *
+   * @throws Exception in case of error
+   */
+  @Test
+  public void frameBudget() throws Exception {
+    SwingUtilities.invokeAndWait(() -> {
+      final JDegradeeGradient from = create(JDegradeeColorSpace.SRGB);
+      final JDegradeeGradient to = create(JDegradeeColorSpace.LINEAR_RGB);
+      final JDegradee[] widgets = new JDegradee[3];
+      for (int i = 0; i < widgets.length; i++) {
+        widgets[i] = new JDegradee();
+        widgets[i].setGradient(from);
+        final JDegradeeAnimator.Transition transition = new JDegradeeAnimator.Transition(widgets[i], from, to,
+          60000);
+        transition.cost = 2000000L;
+        JDegradeeAnimator.start(transition);
+      }
+      JDegradeeAnimator.setFrameBudget(1);
+      try {
+        JDegradeeAnimator.tick();
+        assertNotSame(from, widgets[0].getGradient());
+        assertSame(from, widgets[1].getGradient());
+        assertSame(from, widgets[2].getGradient());
+        JDegradeeAnimator.tick();
+        assertNotSame(from, widgets[1].getGradient());
+        assertSame(from, widgets[2].getGradient());
+
+        final JDegradee last = new JDegradee();
+        last.setGradient(from);
+        final JDegradeeAnimator.Transition finished = new JDegradeeAnimator.Transition(last, from, to, 1);
+        finished.cost = 2000000L;
+        JDegradeeAnimator.start(finished);
+        while (System.nanoTime() - finished.start < finished.duration) {
+          Thread.yield();
+        }
+        JDegradeeAnimator.tick();
+        assertSame(to, last.getGradient());
+        assertEquals(3, JDegradeeAnimator.getNumTransitions());
+      }
+      finally {
+        for (JDegradee widget : widgets) {
+          JDegradeeAnimator.stop(widget);
+        }
+        JDegradeeAnimator.setFrameBudget(JDegradeeAnimator.DEFAULT_FRAME_BUDGET);
+      }
+      assertEquals(0, JDegradeeAnimator.getNumTransitions());
+    });
+  }
+}
@@ -0,0 +1,112 @@
+package andreclinio.javawidgets.jdegradee;
+
+import static org.junit.Assert.assertEquals;
+
+import java.awt.Color;
+import java.awt.image.BufferedImage;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Colormapper checks: samples must get the colors of the equivalent ratio
+ * queries.
+ *
+ * @author Andr Clinio
+ */
+public class JDegradeeColorMapperTest {
+
+  /**
+   * Gradient with marks
+   *
+   * @param numItems number of itens
+   * @return gradient
+   */
+  static private JDegradeeGradient createGradient(final int numItems) {
+    return new JDegradeeGradient(numItems, Color.red, Color.blue).withMarkColorIndex(numItems / 3, Color.green)
+      .withMarkColorIndex(2 * numItems / 3, new Color(0x80ffff00, true));
+  }
+
+  /**
+   * Samples over (and beyond) a range, with the range ends, item borders,
+   * infinities and NaN
+   *
+   * @param minimum minimum value
+   * @param maximum maximum value
+   * @param numItems number of itens
+   * @return samples
+   */
+  static private double[] createSamples(final double minimum, final double maximum, final int numItems) {
+    final Random random = new Random(5);
+    final double range = maximum - minimum;
+    final double[] values = new double[20000];
+    for (int i = 0; i < values.length; i++) {
+      switch (i % 4) {
+        case 0:
+          values[i] = minimum + range * (random.nextDouble() * 1.2 - 0.1);
+          break;
+        case 1:
+          // Ratios at half item positions (rounding borders)
+          values[i] = minimum + range * ((random.nextInt(numItems + 1) + 0.5) / numItems);
+          break;
+        case 2:
+          values[i] = minimum + range * random.nextInt(numItems + 1) / numItems;
+          break;
+        default:
+          values[i] = Math.nextUp(minimum + range * random.nextDouble());
+          break;
+      }
+    }
+    final double[] specials = { minimum, maximum, Math.nextDown(minimum), Math.nextUp(maximum), Double.NaN,
+        Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY };
+    System.arraycopy(specials, 0, values, 0, specials.length);
+    return values;
+  }
+
+  /**
+   * Mapped colors against ratio queries, for several ranges and gradients
+   */
+  @Test
+  public void matchesRatioQueries() {
+    final double[][] ranges = { { 0.0, 1.0 }, { -3.5, 17.25 }, { 1e-9, 3e-9 }, { -1e6, 1e6 } };
+    for (int numItems : new int[] { 2, 7, 256, 1000 }) {
+      final JDegradeeGradient gradient = createGradient(numItems);
+      for (double[] range : ranges) {
+        final double[] values = createSamples(range[0], range[1], numItems);
+        final double[] ratios = new double[values.length];
+        for (int i = 0; i < values.length; i++) {
+          ratios[i] = (values[i] - range[0]) / (range[1] - range[0]);
+        }
+        final int[] expected = new int[values.length];
+        gradient.calculateColorsRatio(ratios, expected);
+        final JDegradeeColorMapper mapper = new JDegradeeColorMapper(gradient, range[0], range[1]).setThreshold(
+          1000);
+        final int[] mapped = new int[values.length];
+        mapper.map(values, 0, mapped, 0, values.length);
+        for (int i = 0; i < values.length; i++) {
+          final String msg = "Value " + values[i] + " in (" + range[0] + "," + range[1] + "), " + numItems + " itens";
+          assertEquals(msg, expected[i], mapped[i]);
+          assertEquals(msg, expected[i], mapper.mapRGB(values[i]));
+        }
+      }
+    }
+  }
+
+  /**
+   * Range ends and NaN colors
+   */
+  @Test
+  public void endsAndNaN() {
+    final JDegradeeGradient gradient = createGradient(64);
+    final JDegradeeColorMapper mapper = new JDegradeeColorMapper(gradient, -1.0, 1.0);
+    assertEquals(gradient.getColorRGB(0), mapper.mapRGB(-1.0));
+    assertEquals(gradient.getColorRGB(63), mapper.mapRGB(1.0));
+    assertEquals(gradient.getColorRGB(0), mapper.mapRGB(Double.NaN));
+    mapper.setNaNColor(new Color(0, true));
+    assertEquals(0, mapper.mapRGB(Double.NaN));
+    final BufferedImage image = new BufferedImage(2, 1, BufferedImage.TYPE_INT_ARGB);
+    mapper.map(new float[] { Float.NaN, 1.0f }, image);
+    assertEquals(0, image.getRGB(0, 0));
+    assertEquals(gradient.getColorRGB(63), image.getRGB(1, 0));
+  }
+}
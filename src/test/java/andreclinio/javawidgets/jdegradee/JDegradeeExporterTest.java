@@ -0,0 +1,88 @@
+package andreclinio.javawidgets.jdegradee;
+
+import static org.junit.Assert.assertEquals;
+
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.image.BufferedImage;
+import java.util.Random;
+
+import org.junit.Test;
+
+import andreclinio.javawidgets.jdegradee.JDegradee.Orientation;
+import andreclinio.javawidgets.jdegradee.renderers.JDegradeeIndexRenderer;
+
+/**
+ * Exporter checks: tiled rendering must match the untiled image pixel by
+ * pixel.
+ *
+ * @author Andr Clinio
+ */
+public class JDegradeeExporterTest {
+
+  /**
+   * Fractional item widths (204 itens over 481 pixels), in small tiles
+   */
+  @Test
+  public void fractionalItems() {
+    final JDegradeeExporter exporter = new JDegradeeExporter(JDegradeeGradient.create(204, Color.red,
+      Color.blue, JDegradeeColorSpace.SRGB, new int[0], new Color[0]));
+    for (int tileSize : new int[] { 16, 64, 100, 240 }) {
+      assertTiledEquals(exporter, 481, 48, tileSize);
+    }
+  }
+
+  /**
+   * Random gradients, sizes, orientations and drawing options
+   */
+  @Test
+  public void randomExports() {
+    final Random random = new Random(17);
+    final Font font = new Font(Font.DIALOG, Font.PLAIN, 10);
+    for (int t = 0; t < 200; t++) {
+      final int numItens = 2 + random.nextInt(400);
+      final int[] indexes = { random.nextInt(numItens / 2), numItens / 2 + random.nextInt(numItens - numItens / 2) };
+      final Color[] colors = { new Color(random.nextInt(), true), new Color(random.nextInt(), true) };
+      final JDegradeeGradient gradient = JDegradeeGradient.create(numItens, Color.yellow, Color.magenta,
+        JDegradeeColorSpace.SRGB, indexes[0] == indexes[1] ? new int[] { indexes[0] } : indexes,
+        indexes[0] == indexes[1] ? new Color[] { colors[0] } : colors);
+      final boolean horizontal = random.nextBoolean();
+      final int length = 50 + random.nextInt(600);
+      final int thickness = 10 + random.nextInt(100);
+      final JDegradeeExporter exporter = new JDegradeeExporter(gradient);
+      exporter.setOrientation(horizontal ? Orientation.HORIZONTAL : Orientation.VERTICAL);
+      exporter.setGridActive(random.nextBoolean());
+      exporter.setContinuousActive(random.nextInt(4) == 0);
+      if (random.nextInt(3) == 0) {
+        exporter.addItemRenderer(new JDegradeeIndexRenderer(font, Color.black));
+      }
+      final int tileSize = 16 + random.nextInt(100);
+      if (horizontal) {
+        assertTiledEquals(exporter, length, thickness, tileSize);
+      }
+      else {
+        assertTiledEquals(exporter, thickness, length, tileSize);
+      }
+    }
+  }
+
+  /**
+   * Comparison of a tiled export with the untiled one
+   *
+   * @param exporter exporter
+   * @param width image width
+   * @param height image height
+   * @param tileSize tile size
+   */
+  private static void assertTiledEquals(final JDegradeeExporter exporter, final int width, final int height,
+    final int tileSize) {
+    final BufferedImage full = exporter.setTileSize(Math.max(width, height)).export(width, height);
+    final BufferedImage tiled = exporter.setTileSize(tileSize).export(width, height);
+    for (int y = 0; y < height; y++) {
+      for (int x = 0; x < width; x++) {
+        final String msg = "Pixel (" + x + "," + y + ") of " + width + "x" + height + " in " + tileSize + " tiles";
+        assertEquals(msg, Integer.toHexString(full.getRGB(x, y)), Integer.toHexString(tiled.getRGB(x, y)));
+      }
+    }
+  }
+}
@@ -0,0 +1,46 @@
+package andreclinio.javawidgets.jdegradee;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.awt.Color;
+
+import org.junit.Test;
+
+/**
+ * Metrics checks
+ *
+ * @author Andr Clinio
+ */
+public class JDegradeeMetricsTest {
+
+  /**
+   * Color cache counters are recorded for widget painting only (exports use
+   * no widget color cache)
+   */
+  @Test
+  public void colorCacheOfWidgetsOnly() {
+    final JDegradeeMetrics metrics = JDegradeeMetrics.getInstance();
+    final JDegradeeGradient gradient = JDegradeeGradient.create(300, Color.red, Color.blue,
+      JDegradeeColorSpace.SRGB, new int[] { 100 }, new Color[] { Color.green });
+    JDegradeeMetrics.setRecording(true);
+    try {
+      metrics.reset();
+      new JDegradeeExporter(gradient).export(600, 40);
+      assertEquals(0, metrics.getColorCacheHits());
+      assertEquals(0, metrics.getColorCacheMisses());
+      assertEquals(0, metrics.getItemsDrawn());
+
+      final JDegradee jDegradee = new JDegradee();
+      jDegradee.setGradient(gradient);
+      jDegradee.setSize(600, 40);
+      JDegradeeTest.paint(jDegradee, 1);
+      assertEquals(300, metrics.getColorCacheHits() + metrics.getColorCacheMisses());
+      assertTrue(metrics.getItemsDrawn() >= 300);
+    }
+    finally {
+      JDegradeeMetrics.setRecording(false);
+      metrics.reset();
+    }
+  }
+}
@@ -0,0 +1,112 @@
+package andreclinio.javawidgets.jdegradee;
+
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+import org.junit.Test;
+
+/**
+ * Steady-state repaint allocation checks: a repaint must allocate nothing
+ * besides the graphics context created by <code>paintComponent</code>.
+ *
+ * @author Andr Clinio
+ */
+public class JDegradeePaintAllocationTest {
+
+  /**
+   * Warm-up repaints (JIT compilation and caches)
+   */
+  final static private int WARMUP = 20000;
+
+  /**
+   * Measured repaints
+   */
+  final static private int REPAINTS = 2000;
+
+  /**
+   * Created graphics (kept so the creation is not optimized away)
+   */
+  static private volatile Graphics sink;
+
+  /**
+   * Buffered drawing check
+   */
+  @Test
+  public void bufferedRepaint() {
+    checkRepaints(true);
+  }
+
+  /**
+   * Direct drawing check
+   */
+  @Test
+  public void directRepaint() {
+    checkRepaints(false);
+  }
+
+  /**
+   * Repaint checks of a drawing mode (itens with grid and many itens in
+   * continuous mode, with and without clip)
+   *
+   * @param buffered buffered drawing flag
+   */
+  private void checkRepaints(final boolean buffered) {
+    final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+    assumeTrue(threads instanceof com.sun.management.ThreadMXBean);
+    final com.sun.management.ThreadMXBean mxBean = (com.sun.management.ThreadMXBean) threads;
+    assumeTrue(mxBean.isThreadAllocatedMemorySupported());
+    mxBean.setThreadAllocatedMemoryEnabled(true);
+    for (int numItens : new int[] { 11, 60000 }) {
+      for (boolean clipped : new boolean[] { false, true }) {
+        final JDegradee jDegradee = new JDegradee();
+        jDegradee.setNumItens(numItens);
+        jDegradee.setGridActive(numItens < 100);
+        jDegradee.setContinuousActive(numItens >= 100);
+        jDegradee.setBufferActive(buffered);
+        jDegradee.setSize(400, 40);
+        final BufferedImage image = new BufferedImage(400, 40, BufferedImage.TYPE_INT_ARGB);
+        final Graphics2D g2d = image.createGraphics();
+        if (clipped) {
+          g2d.setClip(10, 0, 200, 40);
+        }
+        for (int i = 0; i < WARMUP; i++) {
+          jDegradee.paintComponent(g2d);
+          createGraphics(g2d);
+        }
+        final long thread = Thread.currentThread().getId();
+        long before = mxBean.getThreadAllocatedBytes(thread);
+        for (int i = 0; i < REPAINTS; i++) {
+          jDegradee.paintComponent(g2d);
+        }
+        final long paint = mxBean.getThreadAllocatedBytes(thread) - before;
+        before = mxBean.getThreadAllocatedBytes(thread);
+        for (int i = 0; i < REPAINTS; i++) {
+          createGraphics(g2d);
+        }
+        final long create = mxBean.getThreadAllocatedBytes(thread) - before;
+        g2d.dispose();
+        final long extra = (paint - create) / REPAINTS;
+        final String msg = "Repaint allocation (buffered=" + buffered + ", itens=" + numItens + ", clipped="
+          + clipped + "): " + extra + " bytes";
+        assertTrue(msg, extra <= 0);
+      }
+    }
+  }
+
+  /**
+   * Graphics creation (the part of a repaint that always allocates)
+   *
+   * @param g graphics
+   */
+  private static void createGraphics(final Graphics g) {
+    final Graphics created = g.create();
+    sink = created;
+    created.dispose();
+  }
+}
@@ -0,0 +1,227 @@
+package andreclinio.javawidgets.jdegradee;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.awt.Color;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import andreclinio.javawidgets.jdegradee.JDegradee.Orientation;
+
+/**
+ * Binary preset checks (writer, reader and catalog)
+ *
+ * @author Andr Clinio
+ */
+public class JDegradeePresetCatalogTest {
+
+  /**
+   * Random presets (names with non-ASCII characters)
+   *
+   * @param random random generator
+   * @param numPresets number of presets
+   * @param maxItems maximum number of itens
+   * @return presets
+   */
+  static private List<JDegradeePreset> createPresets(final Random random, final int numPresets,
+    final int maxItems) {
+    final List<JDegradeePreset> presets = new ArrayList<>();
+    final JDegradeeColorSpace[] spaces = JDegradeeColorSpace.values();
+    final Orientation[] orientations = Orientation.values();
+    for (int p = 0; p < numPresets; p++) {
+      final int numItems = 1 + random.nextInt(p % 10 == 0 ? maxItems : Math.min(maxItems, 300));
+      final int numMarks = random.nextInt(Math.min(numItems, 20) + 1);
+      final int[] indexes = new int[numMarks];
+      final Color[] colors = new Color[numMarks];
+      int index = -1;
+      for (int n = 0; n < numMarks; n++) {
+        index += 1 + random.nextInt((numItems - 1 - index) / (numMarks - n));
+        indexes[n] = index;
+        colors[n] = new Color(random.nextInt(), true);
+      }
+      final JDegradeeGradient gradient = JDegradeeGradient.create(numItems, new Color(random.nextInt(), true),
+        new Color(random.nextInt(), true), spaces[random.nextInt(spaces.length)], indexes, colors);
+      final String name = "Preset \u00e7\u00e3o " + p;
+      presets.add(new JDegradeePreset(name, gradient, orientations[random.nextInt(orientations.length)]));
+    }
+    return presets;
+  }
+
+  /**
+   * Presets writing
+   *
+   * @param presets presets
+   * @return file bytes
+   * @throws IOException in case of error
+   */
+  static private byte[] write(final List<JDegradeePreset> presets) throws IOException {
+    final ByteArrayOutputStream stream = new ByteArrayOutputStream();
+    try (JDegradeePresetWriter writer = new JDegradeePresetWriter(stream)) {
+      for (JDegradeePreset preset : presets) {
+        writer.write(preset);
+      }
+      assertEquals(presets.size(), writer.getNumPresets());
+    }
+    return stream.toByteArray();
+  }
+
+  /**
+   * Presets reading (up to the end or to an invalid entry)
+   *
+   * @param bytes file bytes
+   * @param presets read presets
+   * @throws IOException in case of invalid file
+   */
+  static private void read(final byte[] bytes, final List<JDegradeePreset> presets) throws IOException {
+    try (JDegradeePresetReader reader = new JDegradeePresetReader(new ByteArrayInputStream(bytes))) {
+      for (JDegradeePreset preset = reader.read(); preset != null; preset = reader.read()) {
+        presets.add(preset);
+      }
+      assertNull(reader.read());
+    }
+  }
+
+  /**
+   * Preset comparison
+   *
+   * @param expected expected preset
+   * @param preset preset
+   */
+  static private void assertPreset(final JDegradeePreset expected, final JDegradeePreset preset) {
+    assertEquals(expected.getName(), preset.getName());
+    assertEquals(expected.getOrientation(), preset.getOrientation());
+    assertEquals(expected.getGradient(), preset.getGradient());
+  }
+
+  /**
+   * Catalog query: an invalid entry may only be reported as a plain
+   * <code>RuntimeException</code>
+   *
+   * @param catalog catalog
+   * @param n preset position
+   * @return indicative of a valid entry
+   */
+  static private boolean query(final JDegradeePresetCatalog catalog, final int n) {
+    try {
+      catalog.getName(n);
+      catalog.getPreset(n);
+      return true;
+    }
+    catch (RuntimeException e) {
+      assertEquals(e.toString(), RuntimeException.class, e.getClass());
+      return false;
+    }
+  }
+
+  /**
+   * Written presets are read back by the reader and by the catalog (mapped
+   * or in memory)
+   *
+   * @throws IOException in case of error
+   */
+  @Test
+  public void roundTrip() throws IOException {
+    final List<JDegradeePreset> presets = createPresets(new Random(23), 200, JDegradee.MAX_ITENS);
+    final byte[] bytes = write(presets);
+    final List<JDegradeePreset> read = new ArrayList<>();
+    read(bytes, read);
+    assertEquals(presets.size(), read.size());
+    final JDegradeePresetCatalog catalog = new JDegradeePresetCatalog(ByteBuffer.wrap(bytes));
+    assertEquals(presets.size(), catalog.getNumPresets());
+    for (int n = 0; n < presets.size(); n++) {
+      assertPreset(presets.get(n), read.get(n));
+      assertPreset(presets.get(n), catalog.getPreset(n));
+      assertEquals(presets.get(n).getName(), catalog.getName(n));
+    }
+    assertEquals(57, catalog.indexOf(presets.get(57).getName()));
+    assertEquals(-1, catalog.indexOf("None"));
+    final Path path = Files.createTempFile("presets", ".jdgr");
+    try {
+      Files.write(path, bytes);
+      final JDegradeePresetCatalog mapped = new JDegradeePresetCatalog(path);
+      assertPreset(presets.get(199), mapped.getPreset(199));
+    }
+    finally {
+      Files.delete(path);
+    }
+    final JDegradeePresetCatalog empty = new JDegradeePresetCatalog(ByteBuffer.wrap(write(presets.subList(0, 0))));
+    assertEquals(0, empty.getNumPresets());
+  }
+
+  /**
+   * Truncated files: the reader gets the complete entries (or an
+   * <code>IOException</code>) and the catalog is refused
+   *
+   * @throws IOException in case of error
+   */
+  @Test
+  public void truncatedFile() throws IOException {
+    final List<JDegradeePreset> presets = createPresets(new Random(24), 12, 100);
+    final byte[] bytes = write(presets);
+    for (int length = 0; length < bytes.length; length++) {
+      final byte[] truncated = Arrays.copyOf(bytes, length);
+      final List<JDegradeePreset> read = new ArrayList<>();
+      try {
+        read(truncated, read);
+      }
+      catch (IOException e) {
+        // expected for most lengths
+      }
+      for (int n = 0; n < read.size(); n++) {
+        assertPreset(presets.get(n), read.get(n));
+      }
+      try {
+        new JDegradeePresetCatalog(ByteBuffer.wrap(truncated));
+        fail("Truncated catalog opened (" + length + " bytes)");
+      }
+      catch (IOException e) {
+        assertTrue(e.getMessage().startsWith("Invalid preset catalog"));
+      }
+    }
+  }
+
+  /**
+   * Bad entry offsets (outside the entries, inside an entry or at a
+   * corrupted end marker) are reported as invalid catalog entries
+   *
+   * @throws IOException in case of error
+   */
+  @Test
+  public void badOffset() throws IOException {
+    final List<JDegradeePreset> presets = createPresets(new Random(25), 20, 100);
+    final byte[] bytes = write(presets);
+    final ByteBuffer buffer = ByteBuffer.wrap(bytes);
+    final int table = buffer.getInt(bytes.length - 4);
+    final int[] offsets = { -1, 0, JDegradeePresetCodec.HEADER_LENGTH - 1, table, table + 3, bytes.length,
+      Integer.MAX_VALUE, Integer.MIN_VALUE };
+    for (int offset : offsets) {
+      final byte[] bad = bytes.clone();
+      ByteBuffer.wrap(bad).putInt(table + 4 * 7, offset);
+      final JDegradeePresetCatalog catalog = new JDegradeePresetCatalog(ByteBuffer.wrap(bad));
+      assertFalse(query(catalog, 7));
+      assertTrue(query(catalog, 6));
+      assertTrue(query(catalog, 8));
+    }
+    for (int offset = JDegradeePresetCodec.HEADER_LENGTH; offset < table; offset++) {
+      final byte[] bad = bytes.clone();
+      bad[table - 1] = (byte) 0x80;
+      ByteBuffer.wrap(bad).putInt(table + 4 * 7, offset);
+      final JDegradeePresetCatalog catalog = new JDegradeePresetCatalog(ByteBuffer.wrap(bad));
+      query(catalog, 7);
+    }
+  }
+}
@@ -0,0 +1,101 @@
+package andreclinio.javawidgets.jdegradee;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Fixed-point kernel checks against the double arithmetic reference.
+ *
+ * @author Andr Clinio
+ */
+public class JDegradeeScalarInterpolatorTest {
+
+  /**
+   * Double reference of a channel value (ties may be rounded either way,
+   * depending on the floating point error)
+   *
+   * @param from first channel value
+   * @param to last channel value
+   * @param step item position (from the first color)
+   * @param delta number of steps
+   * @return channel value
+   */
+  static private int doubleChannel(final int from, final int to, final int step, final int delta) {
+    return (int) Math.round(from + (to - from) * ((double) step / delta));
+  }
+
+  /**
+   * Checks if a channel value is an exact rounding tie (x.5)
+   *
+   * @param from first channel value
+   * @param to last channel value
+   * @param step item position (from the first color)
+   * @param delta number of steps
+   * @return indicative
+   */
+  static private boolean isTie(final int from, final int to, final int step, final int delta) {
+    final long twice = 2L * ((long) from * delta + (long) (to - from) * step);
+    return Math.floorMod(twice, 2L * delta) == delta;
+  }
+
+  /**
+   * Exactly rounded channel value (ties rounded up)
+   *
+   * @param from first channel value
+   * @param to last channel value
+   * @param step item position (from the first color)
+   * @param delta number of steps
+   * @return channel value
+   */
+  static private int exactChannel(final int from, final int to, final int step, final int delta) {
+    final long twice = 2L * ((long) from * delta + (long) (to - from) * step);
+    return (int) Math.floorDiv(twice + delta, 2L * delta);
+  }
+
+  /**
+   * Random segments and sub-intervals (alpha included), up to the maximum
+   * number of itens
+   */
+  @Test
+  public void matchesDoubleReference() {
+    final Random random = new Random(15);
+    for (int t = 0; t < 400; t++) {
+      final int delta = t < 200 ? 1 + random.nextInt(300) : 1 + random.nextInt(JDegradee.MAX_ITENS - 1);
+      final int start = random.nextInt(8);
+      final int end = start + delta;
+      final int fromRGB = random.nextInt();
+      final int toRGB = t % 10 == 0 ? fromRGB : random.nextInt();
+      final int first = start + random.nextInt(delta + 1);
+      final int last = first + random.nextInt(end - first + 1);
+      final int[] array = new int[end + 1];
+      JDegradeeScalarInterpolator.interpolate(array, first, last, start, end, fromRGB, toRGB);
+      for (int i = first; i <= last; i++) {
+        for (int shift = 0; shift < 32; shift += 8) {
+          final int from = (fromRGB >>> shift) & 0xff;
+          final int to = (toRGB >>> shift) & 0xff;
+          final int value = (array[i] >>> shift) & 0xff;
+          final String msg = "Item " + i + " of " + start + ".." + end + ", channel " + shift;
+          assertEquals(msg, exactChannel(from, to, i - start, delta), value);
+          if (!isTie(from, to, i - start, delta)) {
+            assertEquals(msg, doubleChannel(from, to, i - start, delta), value);
+          }
+        }
+      }
+    }
+  }
+
+  /**
+   * Interval ends keep the exact colors
+   */
+  @Test
+  public void exactEnds() {
+    final int[] array = new int[JDegradee.MAX_ITENS];
+    final int last = array.length - 1;
+    JDegradeeScalarInterpolator.interpolate(array, 0, last, 0, last, 0x00ff8001, 0xff007fff);
+    assertEquals(0x00ff8001, array[0]);
+    assertEquals(0xff007fff, array[last]);
+  }
+}
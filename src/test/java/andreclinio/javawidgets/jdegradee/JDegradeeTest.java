@@ -0,0 +1,181 @@
+package andreclinio.javawidgets.jdegradee;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.swing.SwingUtilities;
+
+import org.junit.Test;
+
+import andreclinio.javawidgets.jdegradee.adapters.JDegradeeGradientEvent;
+import andreclinio.javawidgets.jdegradee.renderers.JDegradeeIndexRenderer;
+
+/**
+ * Widget checks (drawing and model changes)
+ *
+ * @author Andr Clinio
+ */
+public class JDegradeeTest {
+
+  /**
+   * Widget painting into a new image
+   *
+   * @param jDegradee widget
+   * @param scale graphics scale (as in HiDPI screens)
+   * @return image (device pixels)
+   */
+  static BufferedImage paint(final JDegradee jDegradee, final double scale) {
+    final int width = (int) Math.ceil(jDegradee.getWidth() * scale);
+    final int height = (int) Math.ceil(jDegradee.getHeight() * scale);
+    final BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+    final Graphics2D g2d = image.createGraphics();
+    g2d.scale(scale, scale);
+    jDegradee.paint(g2d);
+    g2d.dispose();
+    return image;
+  }
+
+  /**
+   * Number of pixels of a color in an image row
+   *
+   * @param image image
+   * @param y row
+   * @param rgb packed ARGB color
+   * @return number of pixels
+   */
+  static int count(final BufferedImage image, final int y, final int rgb) {
+    int n = 0;
+    for (int x = 0; x < image.getWidth(); x++) {
+      if (image.getRGB(x, y) == rgb) {
+        n++;
+      }
+    }
+    return n;
+  }
+
+  /**
+   * Widget whose gradient events are stored
+   *
+   * @param events event list
+   * @return widget
+   */
+  static JDegradee createListened(final List<JDegradeeGradientEvent> events) {
+    final JDegradee jDegradee = new JDegradee();
+    jDegradee.setNumItens(16);
+    jDegradee.addGradientListener(events::add);
+    return jDegradee;
+  }
+
+  /**
+   * A primary color hidden by a mark at the first item changes no item, but
+   * the change is still notified (with an empty interval).
+   */
+  @Test
+  public void hiddenPrimaryColorEvent() {
+    final List<JDegradeeGradientEvent> events = new ArrayList<>();
+    final JDegradee jDegradee = createListened(events);
+    jDegradee.setMarkColorIndex(0, Color.green);
+    events.clear();
+    jDegradee.setPrimaryColor(Color.yellow);
+    assertEquals(1, events.size());
+    final JDegradeeGradientEvent event = events.get(0);
+    assertTrue(event.getFirstIndex() > event.getLastIndex());
+    assertEquals(Color.yellow, event.getGradient().getPrimaryColor());
+    assertEquals(jDegradee.getGradient(), event.getGradient());
+    jDegradee.setGradient(jDegradee.getGradient().withPrimaryColor(Color.cyan));
+    assertEquals(2, events.size());
+    assertEquals(Color.cyan, events.get(1).getGradient().getPrimaryColor());
+  }
+
+  /**
+   * Changes to an equal gradient (a mark set to its own color) are ignored:
+   * no event and no transition stop.
+   *
+   * @throws Exception in case of event thread failure
+   */
+  @Test
+  public void unchangedMarkColor() throws Exception {
+    final List<JDegradeeGradientEvent> events = new ArrayList<>();
+    final JDegradee jDegradee = createListened(events);
+    jDegradee.setMarkColorIndex(5, Color.green);
+    events.clear();
+    jDegradee.setMarkColorIndex(5, new Color(Color.green.getRGB()));
+    jDegradee.setGradient(jDegradee.getGradient().withMarkColorIndex(5, Color.green));
+    jDegradee.setPrimaryColor(jDegradee.getPrimaryColor());
+    assertEquals(0, events.size());
+    SwingUtilities.invokeAndWait(() -> {
+      jDegradee.animateGradient(jDegradee.getGradient().withSecondaryColor(Color.white), 60000);
+      final JDegradeeGradient current = jDegradee.getGradient();
+      jDegradee.setGradient(current);
+      assertTrue(jDegradee.isAnimating());
+      jDegradee.stopAnimation();
+    });
+  }
+
+  /**
+   * A color space change that keeps the palette (two itens, no marks) is
+   * notified.
+   */
+  @Test
+  public void unchangedPaletteColorSpaceEvent() {
+    final List<JDegradeeGradientEvent> events = new ArrayList<>();
+    final JDegradee jDegradee = createListened(events);
+    jDegradee.setNumItens(2);
+    jDegradee.setMarkColorIndex(jDegradee.getNthMarkIndex(0), null);
+    events.clear();
+    jDegradee.setColorSpace(JDegradeeColorSpace.OKLAB);
+    assertEquals(1, events.size());
+    assertEquals(JDegradeeColorSpace.OKLAB, events.get(0).getGradient().getColorSpace());
+  }
+
+  /**
+   * Itens that fit the device pixels (but not the user space ones) are drawn
+   * one by one, with grid.
+   */
+  @Test
+  public void scaledGrid() {
+    for (boolean buffered : new boolean[] { true, false }) {
+      final JDegradee jDegradee = new JDegradee();
+      jDegradee.setOrientation(JDegradee.Orientation.HORIZONTAL);
+      jDegradee.setNumItens(300);
+      jDegradee.setGridActive(true);
+      jDegradee.setLineColor(Color.black);
+      jDegradee.setBufferActive(buffered);
+      jDegradee.setSize(200, 40);
+      final int black = Color.black.getRGB();
+      assertTrue("No grid at scale 1", count(paint(jDegradee, 1.0), 0, black) == 0);
+      assertTrue("Grid at scale 2", count(paint(jDegradee, 2.0), 0, black) > 0);
+    }
+  }
+
+  /**
+   * A font change redraws the back buffer (labels drawn with the component
+   * font).
+   */
+  @Test
+  public void bufferedFontChange() {
+    final JDegradee jDegradee = new JDegradee();
+    jDegradee.setOrientation(JDegradee.Orientation.HORIZONTAL);
+    jDegradee.setNumItens(8);
+    jDegradee.addItemRenderer(new JDegradeeIndexRenderer(null, Color.black));
+    jDegradee.setFont(new Font(Font.DIALOG, Font.PLAIN, 8));
+    jDegradee.setSize(400, 40);
+    paint(jDegradee, 1.0);
+    jDegradee.setFont(new Font(Font.DIALOG, Font.BOLD, 20));
+    final BufferedImage buffered = paint(jDegradee, 1.0);
+    jDegradee.setBufferActive(false);
+    final BufferedImage direct = paint(jDegradee, 1.0);
+    for (int y = 0; y < direct.getHeight(); y++) {
+      for (int x = 0; x < direct.getWidth(); x++) {
+        assertEquals("Pixel (" + x + "," + y + ")", direct.getRGB(x, y), buffered.getRGB(x, y));
+      }
+    }
+  }
+}
@@ -0,0 +1,109 @@
+package andreclinio.javawidgets.jdegradee.adapters;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.awt.Color;
+import java.awt.event.InputEvent;
+import java.awt.event.MouseEvent;
+import java.awt.geom.Rectangle2D;
+
+import org.junit.Test;
+
+import andreclinio.javawidgets.jdegradee.JDegradee;
+
+/**
+ * Standard adapter checks (mark dragging)
+ *
+ * @author Andr Clinio
+ */
+public class JDegradeeStandardAdapterTest {
+
+  /**
+   * Widget with 20 itens (10 pixels each) and marks at 4, 10 and 14
+   *
+   * @return widget
+   */
+  static private JDegradee createWidget() {
+    final JDegradee jDegradee = new JDegradee();
+    jDegradee.setNumItens(20);
+    jDegradee.setSize(200, 40);
+    while (jDegradee.getNumMarks() > 0) {
+      jDegradee.setMarkColorIndex(jDegradee.getNthMarkIndex(0), null);
+    }
+    jDegradee.setMarkColorIndex(4, Color.red);
+    jDegradee.setMarkColorIndex(10, Color.green);
+    jDegradee.setMarkColorIndex(14, Color.blue);
+    jDegradee.addDegradeeListener(new JDegradeeStandardAdapter("edit", "delete"));
+    return jDegradee;
+  }
+
+  /**
+   * Left button mouse event dispatching (at the marks height)
+   *
+   * @param jDegradee widget
+   * @param id event id
+   * @param x horizontal coordinate
+   */
+  static private void dispatch(final JDegradee jDegradee, final int id, final int x) {
+    final int button = id == MouseEvent.MOUSE_DRAGGED ? MouseEvent.NOBUTTON : MouseEvent.BUTTON1;
+    final Rectangle2D bounds = jDegradee.getMarkBounds(jDegradee.getNthMarkIndex(0));
+    final int y = (int) bounds.getCenterY();
+    jDegradee.dispatchEvent(new MouseEvent(jDegradee, id, 0, InputEvent.BUTTON1_DOWN_MASK, x, y, 1,
+      false, button));
+  }
+
+  /**
+   * Drag start over the mark at 10
+   *
+   * @param jDegradee widget
+   */
+  static private void pressMark(final JDegradee jDegradee) {
+    final Rectangle2D bounds = jDegradee.getMarkBounds(10);
+    final int x = (int) bounds.getCenterX();
+    assertEquals(10, jDegradee.markAt(x, bounds.getCenterY()));
+    dispatch(jDegradee, MouseEvent.MOUSE_PRESSED, x);
+  }
+
+  /**
+   * The dragged mark follows the pointer, kept between its neighbour marks
+   */
+  @Test
+  public void clampedBetweenNeighbours() {
+    final JDegradee jDegradee = createWidget();
+    pressMark(jDegradee);
+    dispatch(jDegradee, MouseEvent.MOUSE_DRAGGED, 125);
+    assertEquals(3, jDegradee.getNumMarks());
+    assertEquals(12, jDegradee.getNthMarkIndex(1));
+    dispatch(jDegradee, MouseEvent.MOUSE_DRAGGED, 195);
+    assertEquals(13, jDegradee.getNthMarkIndex(1));
+    assertEquals(14, jDegradee.getNthMarkIndex(2));
+    dispatch(jDegradee, MouseEvent.MOUSE_DRAGGED, 5);
+    assertEquals(4, jDegradee.getNthMarkIndex(0));
+    assertEquals(5, jDegradee.getNthMarkIndex(1));
+    assertEquals(Color.green, jDegradee.getMarkColor(5));
+    dispatch(jDegradee, MouseEvent.MOUSE_RELEASED, 5);
+    dispatch(jDegradee, MouseEvent.MOUSE_DRAGGED, 95);
+    assertEquals(5, jDegradee.getNthMarkIndex(1));
+  }
+
+  /**
+   * The drag ends when the dragged mark is removed meanwhile
+   */
+  @Test
+  public void endsWhenMarkRemoved() {
+    final JDegradee jDegradee = createWidget();
+    pressMark(jDegradee);
+    dispatch(jDegradee, MouseEvent.MOUSE_DRAGGED, 115);
+    assertEquals(11, jDegradee.getNthMarkIndex(1));
+    jDegradee.setMarkColorIndex(11, null);
+    dispatch(jDegradee, MouseEvent.MOUSE_DRAGGED, 125);
+    assertEquals(2, jDegradee.getNumMarks());
+    assertFalse(jDegradee.hasMarkColor(12));
+    jDegradee.setMarkColorIndex(11, Color.yellow);
+    dispatch(jDegradee, MouseEvent.MOUSE_DRAGGED, 135);
+    assertTrue(jDegradee.hasMarkColor(11));
+    assertFalse(jDegradee.hasMarkColor(13));
+  }
+}
@@ -0,0 +1,43 @@
+package andreclinio.javawidgets.jdegradee;
+
+import static org.junit.Assert.assertArrayEquals;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Vectorized kernel checks against the scalar kernel (Java 17 only, run
+ * with <code>--add-modules jdk.incubator.vector</code>).
+ *
+ * @author Andr Clinio
+ */
+public class JDegradeeVectorInterpolatorTest {
+
+  /**
+   * Random palettes: several segments (alpha included) filled by both
+   * kernels, with random sub-intervals (any alignment and remainder)
+   */
+  @Test
+  public void matchesScalarKernel() {
+    final Random random = new Random(16);
+    for (int t = 0; t < 300; t++) {
+      final int numItems = 2 + random.nextInt(t < 150 ? 500 : JDegradee.MAX_ITENS - 1);
+      final int[] scalar = new int[numItems];
+      final int[] vector = new int[numItems];
+      int start = 0;
+      int fromRGB = random.nextInt();
+      while (start < numItems - 1) {
+        final int end = Math.min(numItems - 1, start + 1 + random.nextInt(numItems));
+        final int toRGB = random.nextInt();
+        final int first = start + random.nextInt(Math.min(8, end - start + 1));
+        final int last = end - random.nextInt(Math.min(8, end - first + 1));
+        JDegradeeScalarInterpolator.interpolate(scalar, first, last, start, end, fromRGB, toRGB);
+        JDegradeeVectorInterpolator.interpolate(vector, first, last, start, end, fromRGB, toRGB);
+        start = end;
+        fromRGB = toRGB;
+      }
+      assertArrayEquals("Palette " + t + " (" + numItems + " itens)", scalar, vector);
+    }
+  }
+}